@@ -0,0 +1,114 @@
+package tech.kucharski.makao;
+
+import org.openjdk.jmh.annotations.*;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.GameManager;
+import tech.kucharski.makao.game.GamePhase;
+import tech.kucharski.makao.game.exceptions.PlayerInGameException;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the check done by CREATE_GAME, with many players seated in joinable games. A seated client creating a
+ * game is rejected, so the number of games does not change during the benchmark. The scan is the former check, which
+ * looked through the players of every game.
+ * <p>
+ * The server is a singleton, the benchmark runs in its own fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateGameBenchmark {
+    private static final int PLAYERS = 100_000;
+    private static final int PLAYERS_PER_GAME = 4;
+    private final UUID[] clients = new UUID[PLAYERS];
+    private final List<Game> games = new ArrayList<>();
+    private GameManager manager;
+
+    /**
+     * Starts the server and seats the players, waiting until every game added its players.
+     *
+     * @throws IOException          When no free port is found
+     * @throws InterruptedException When interrupted while seating the players
+     */
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        manager = new Makao("127.0.0.1", String.valueOf(port)).getGameManager();
+        for (int i = 0; i < PLAYERS; i += PLAYERS_PER_GAME) {
+            clients[i] = UUID.randomUUID();
+            final Game game;
+            try {
+                game = manager.createGame(clients[i]);
+            } catch (PlayerInGameException e) {
+                throw new IllegalStateException(e);
+            }
+            games.add(game);
+            for (int j = i + 1; j < Math.min(i + PLAYERS_PER_GAME, PLAYERS); j++) {
+                final UUID client = clients[j] = UUID.randomUUID();
+                if (!manager.reserve(client, game))
+                    throw new IllegalStateException("Client is already seated.");
+                game.execute(() -> game.addPlayer(client));
+            }
+        }
+        final CountDownLatch seated = new CountDownLatch(games.size());
+        for (Game game : games)
+            game.execute(seated::countDown);
+        if (!seated.await(60, TimeUnit.SECONDS))
+            throw new IllegalStateException("Players were not seated in time.");
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Whether the client was rejected.
+     */
+    @Benchmark
+    public boolean index(Cursor cursor) {
+        try {
+            manager.createGame(clients[cursor.next()]);
+            return false;
+        } catch (PlayerInGameException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Whether the client was rejected.
+     */
+    @Benchmark
+    public boolean scan(Cursor cursor) {
+        final UUID client = clients[cursor.next()];
+        return games.stream().anyMatch(game -> game.getGameState() != GamePhase.FINISHED && game.getRoster().stream()
+                .anyMatch(player -> client.equals(manager.getClientID(player.getUUID()))));
+    }
+
+    /**
+     * Index of the next client of a thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index = 0;
+
+        /**
+         * @return Index of the next client.
+         */
+        public int next() {
+            final int next = index;
+            index = (index + 1) % PLAYERS;
+            return next;
+        }
+    }
+}
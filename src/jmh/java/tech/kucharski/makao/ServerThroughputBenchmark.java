@@ -0,0 +1,131 @@
+package tech.kucharski.makao;
+
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.openjdk.jmh.annotations.*;
+import tech.kucharski.makao.server.ServerSettings;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests handled per second by a running server, by the number of threads and listeners. Every thread pool of the
+ * server (decoders, requests, games and outbound) gets the same number of threads, run the benchmark on a machine with
+ * at least as many cores to get the throughput curve. Many clients keep a window of lobby requests in flight each,
+ * a request is counted when its response arrives.
+ * <p>
+ * The server is a singleton, every fork runs a single combination of parameters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServerThroughputBenchmark {
+    private static final int CLIENTS = 32;
+    private static final int WINDOW = 16;
+    private final List<BenchmarkClient> clients = new ArrayList<>();
+    private final String requestID = UUID.randomUUID().toString();
+    private final String heartbeat = "{\"req\":\"HEARTBEAT\",\"uuid\":\"" + UUID.randomUUID() + "\"}";
+    private final String request = "{\"req\":\"GET_GAMES\",\"uuid\":\"" + requestID + "\"}";
+    @Param({"1", "2"})
+    private int listeners;
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Starts the server and connects the clients.
+     *
+     * @throws IOException          When no free port is found
+     * @throws InterruptedException When interrupted while connecting
+     */
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final ServerSettings settings = new ServerSettings().setListeners(listeners).setDecoderThreads(threads)
+                .setRequestThreads(threads).setGameThreads(threads).setOutboundThreads(threads);
+        new Makao("127.0.0.1", String.valueOf(port), settings);
+        for (int i = 0; i < CLIENTS; i++) {
+            final BenchmarkClient client = new BenchmarkClient(URI.create("ws://127.0.0.1:" + port), requestID);
+            if (!client.connectBlocking(10, TimeUnit.SECONDS))
+                throw new IllegalStateException("Failed to connect to the server.");
+            clients.add(client);
+        }
+    }
+
+    /**
+     * Disconnects the clients.
+     *
+     * @throws InterruptedException When interrupted while disconnecting
+     */
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        for (BenchmarkClient client : clients)
+            client.closeBlocking();
+    }
+
+    /**
+     * Sends a window of requests from every client and waits for all responses.
+     *
+     * @throws InterruptedException When interrupted while waiting
+     */
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS * WINDOW)
+    public void requests() throws InterruptedException {
+        final CountDownLatch responses = new CountDownLatch(CLIENTS * WINDOW);
+        for (BenchmarkClient client : clients) {
+            client.responses = responses;
+            //Keeps the client from timing out
+            client.send(heartbeat);
+            for (int i = 0; i < WINDOW; i++)
+                client.send(request);
+        }
+        if (!responses.await(10, TimeUnit.SECONDS))
+            throw new IllegalStateException("Responses did not arrive in time.");
+    }
+
+    /**
+     * Counts the responses to the benchmark requests.
+     */
+    private static final class BenchmarkClient extends WebSocketClient {
+        private final String requestID;
+        private volatile CountDownLatch responses = new CountDownLatch(0);
+
+        /**
+         * @param serverUri URI of the server.
+         * @param requestID ID of the benchmark requests.
+         */
+        private BenchmarkClient(URI serverUri, String requestID) {
+            super(serverUri);
+            this.requestID = requestID;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+        }
+
+        @Override
+        public void onMessage(String message) {
+            if (message.contains(requestID))
+                responses.countDown();
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(Exception ex) {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tech.kucharski.makao.game.deck;
+
+import org.openjdk.jmh.annotations.*;
+import tech.kucharski.makao.game.validators.CardMask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of a deck and lookups of its cards by UUID, by the number of decks of cards. The scan is the former
+ * lookup, which looked through all cards of the deck. A table is a deck dealt to four players per deck of cards, run
+ * it with {@code -prof gc}, its normalized allocation rate approximates the heap footprint of the cards of a game.
+ * The playable cards are the hint sent to the player whose turn it is, with hands of five cards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeckBenchmark {
+    /**
+     * Cards matching a hearts card of value 7.
+     */
+    private static final long PLAYABLE = CardMask.of(CardColor.HEARTS) | CardMask.of(CardValue.CARD_7);
+    private final Map<CardType, CardSettings> cardSettings = new HashMap<>();
+    private Card[] cards;
+    private Deck deck;
+    @Param({"1", "2", "5", "10"})
+    private int decks;
+    private UUID[] players;
+    private UUID[] uuids;
+
+    /**
+     * Creates the deck looked up.
+     */
+    @Setup
+    public void setup() {
+        deck = new Deck(decks, cardSettings);
+        cards = deck.getCards();
+        uuids = new UUID[cards.length];
+        for (int i = 0; i < cards.length; i++)
+            uuids[i] = cards[i].getUUID();
+        players = new UUID[decks * 4];
+        for (int i = 0; i < players.length; i++)
+            deck.givePlayerCards(players[i] = UUID.randomUUID(), 5);
+    }
+
+    /**
+     * @return Newly created deck.
+     */
+    @Benchmark
+    public Deck construct() {
+        return new Deck(decks, cardSettings);
+    }
+
+    /**
+     * @return Newly created deck dealt to the players.
+     */
+    @Benchmark
+    public Deck table() {
+        final Deck table = new Deck(decks, cardSettings);
+        for (UUID player : players)
+            table.givePlayerCards(player, 5);
+        return table;
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Card found.
+     */
+    @Benchmark
+    public Card lookup(Cursor cursor) {
+        return deck.getCardByUUID(uuids[cursor.next(uuids.length)]);
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Cards the player can play.
+     */
+    @Benchmark
+    public PlayableCards playable(Cursor cursor) {
+        return deck.getPlayableCards(players[cursor.next(players.length)], PLAYABLE);
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Card found.
+     */
+    @Benchmark
+    public Card scan(Cursor cursor) {
+        final UUID uuid = uuids[cursor.next(uuids.length)];
+        for (Card card : cards)
+            if (card.getUUID().equals(uuid))
+                return card;
+        return null;
+    }
+
+    /**
+     * Index of the next card looked up by a thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index = 0;
+
+        /**
+         * @param length Number of cards.
+         * @return Index of the next card.
+         */
+        public int next(int length) {
+            final int next = index;
+            index = (index + 1) % length;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package tech.kucharski.makao.game.deck;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns of a long game on a table with many decks, four players per deck like in a game. Every turn the player on
+ * turn draws a card and plays the oldest card of its hand, so the hands keep their size and the draw pile is
+ * reshuffled from the discard pile every time it runs out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LongGameBenchmark {
+    private Deck deck;
+    @Param({"1", "5", "10"})
+    private int decks;
+    private UUID[] players;
+    private int turn = 0;
+
+    /**
+     * Creates the deck and deals five cards to every player.
+     */
+    @Setup
+    public void setup() {
+        deck = new Deck(decks, new HashMap<>());
+        players = new UUID[decks * 4];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = UUID.randomUUID();
+            deck.givePlayerCards(players[i], 5);
+        }
+    }
+
+    /**
+     * @return Card played.
+     */
+    @Benchmark
+    public Card turn() {
+        final UUID player = players[turn];
+        turn = (turn + 1) % players.length;
+        deck.givePlayerCards(player, 1);
+        final Card card = deck.getCardByUUID(deck.getPlayerCardUUIDs(player).get(0));
+        deck.playCard(card);
+        return card;
+    }
+}
@@ -0,0 +1,92 @@
+package tech.kucharski.makao.game.validators;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.kucharski.makao.game.deck.Card;
+import tech.kucharski.makao.game.deck.CardColor;
+import tech.kucharski.makao.game.deck.CardType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validators set after an ace requesting a color, the worst case of a game, and every card type checked against them.
+ * The chain is the former list of validator objects rebuilt after every play, the mask is its compiled form.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardValidatorBenchmark {
+    private final Card[] cards = new Card[CardType.values().length];
+    private final List<CardValidator> chain = new ArrayList<>();
+    private long mask;
+    private long requireColorTypes;
+
+    /**
+     * Creates a card of every type and the validators.
+     */
+    @Setup
+    public void setup() {
+        for (CardType type : CardType.values()) {
+            cards[type.ordinal()] = new Card(UUID.randomUUID(), type);
+            if (type.getDefaultSettings().validatorPreset() == ValidatorPreset.REQUIRE_COLOR)
+                requireColorTypes |= CardMask.of(type);
+        }
+        buildChain();
+        mask = compileMask();
+    }
+
+    /**
+     * @return Validators after an ace requesting hearts, built the way the game built them.
+     */
+    @Benchmark
+    public List<CardValidator> buildChain() {
+        chain.clear();
+        chain.add(new RequireColorValidator(CardColor.HEARTS));
+        for (CardType type : CardType.values())
+            if (type.getDefaultSettings().validatorPreset() == ValidatorPreset.REQUIRE_COLOR)
+                chain.add(new CombinedValidator(new RequireValueValidator(type.getValue()),
+                        new RequireColorValidator(type.getColor())));
+        return chain;
+    }
+
+    /**
+     * @return Mask after an ace requesting hearts, computed the way the game computes it.
+     */
+    @Benchmark
+    public long compileMask() {
+        return CardMask.of(CardColor.HEARTS) | requireColorTypes;
+    }
+
+    /**
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void validateChain(Blackhole blackhole) {
+        for (Card card : cards) {
+            boolean valid = false;
+            for (CardValidator validator : chain)
+                if (validator.validate(card)) {
+                    valid = true;
+                    break;
+                }
+            blackhole.consume(valid);
+        }
+    }
+
+    /**
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void validateMask(Blackhole blackhole) {
+        for (Card card : cards)
+            blackhole.consume(CardMask.contains(mask, card.getType()));
+    }
+}
@@ -0,0 +1,75 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing a lobby update for every recipient of a broadcast. Scores are per broadcast, divide them by the
+ * number of recipients to get the cost per recipient.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+    private Message message;
+    @Param({"1000", "10000", "50000"})
+    private int recipients;
+
+    /**
+     * Prepares a message shaped like {@link tech.kucharski.makao.server.messages.GameUpdatedMessage} of a game with
+     * four players.
+     */
+    @Setup
+    public void setup() {
+        final JsonObject game = new JsonObject();
+        game.addProperty("uuid", UUID.randomUUID().toString());
+        game.addProperty("phase", "PREPARING");
+        final JsonArray players = new JsonArray();
+        for (int i = 0; i < 4; i++) {
+            final JsonObject player = new JsonObject();
+            player.addProperty("uuid", UUID.randomUUID().toString());
+            player.addProperty("cardsRemaining", 0);
+            player.addProperty("avatar", UUID.randomUUID().toString());
+            player.addProperty("name", "Player " + i);
+            players.add(player);
+        }
+        game.add("players", players);
+        message = () -> {
+            final JsonObject response = new JsonObject();
+            response.addProperty("req", "GAME_LIST_UPDATED");
+            response.add("game", game.deepCopy());
+            return response;
+        };
+    }
+
+    /**
+     * @param blackhole Consumes the frames.
+     */
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) {
+        final EncodedMessage encoded = EncodedMessage.of(message);
+        for (int i = 0; i < recipients; i++)
+            blackhole.consume(encoded.encode(i));
+    }
+
+    /**
+     * @param blackhole Consumes the frames.
+     */
+    @Benchmark
+    public void encodePerRecipient(Blackhole blackhole) {
+        for (int i = 0; i < recipients; i++) {
+            final JsonObject jsonObject = message.toJSONObject();
+            jsonObject.addProperty("_msgID", i);
+            blackhole.consume(jsonObject.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
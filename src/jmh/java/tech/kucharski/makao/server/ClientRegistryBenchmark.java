@@ -0,0 +1,101 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.drafts.Draft_6455;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client lookups done for every message sent, with many threads looking up concurrently. The synchronized maps are the
+ * former structures of the server, the attachment and the registry replace them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ClientRegistryBenchmark {
+    private static final int CLIENTS = 1024;
+    private final Map<UUID, Client> synchronizedByUUID = Collections.synchronizedMap(new HashMap<>());
+    private final Map<WebSocket, Client> synchronizedBySocket = Collections.synchronizedMap(new HashMap<>());
+    private final ClientRegistry registry = new ClientRegistry();
+    private final WebSocket[] sockets = new WebSocket[CLIENTS];
+    private final UUID[] uuids = new UUID[CLIENTS];
+
+    /**
+     * Registers the clients, every one with a socket that is never connected.
+     */
+    @Setup
+    public void setup() {
+        final Server server = new Server(new InetSocketAddress(0));
+        for (int i = 0; i < CLIENTS; i++) {
+            final Client client = registry.register(Client::new);
+            final WebSocket socket = new WebSocketImpl(server.getListeners().get(0), new Draft_6455());
+            socket.setAttachment(client);
+            sockets[i] = socket;
+            uuids[i] = client.getUUID();
+            synchronizedBySocket.put(socket, client);
+            synchronizedByUUID.put(client.getUUID(), client);
+        }
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Client found.
+     */
+    @Benchmark
+    public Client synchronizedBySocket(Cursor cursor) {
+        return synchronizedBySocket.get(sockets[cursor.next()]);
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Client found.
+     */
+    @Benchmark
+    public Client attachment(Cursor cursor) {
+        return ClientRegistry.get(sockets[cursor.next()]);
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Client found.
+     */
+    @Benchmark
+    public Client synchronizedByUUID(Cursor cursor) {
+        return synchronizedByUUID.get(uuids[cursor.next()]);
+    }
+
+    /**
+     * @param cursor Position of the thread.
+     * @return Client found.
+     */
+    @Benchmark
+    public Client registryByUUID(Cursor cursor) {
+        return registry.get(uuids[cursor.next()]);
+    }
+
+    /**
+     * Index of the next client looked up by a thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index = 0;
+
+        /**
+         * @return Index of the next client.
+         */
+        public int next() {
+            return index++ & (CLIENTS - 1);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time a WebSocket decoding thread spends per received message, with the request handled inline and with the request
+ * handed over to the {@link InboundQueue} of its connection. The request is a JSON message followed by some synthetic
+ * work standing in for the game logic and its sends. The time is the delay every other connection served by the same
+ * thread sees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InboundQueueBenchmark {
+    private static final int CONNECTIONS = 1024;
+    private ExecutorService executor;
+    private int next = 0;
+    private InboundQueue[] queues;
+    private String request;
+    /**
+     * Synthetic work of a request in {@link Blackhole#consumeCPU(long)} tokens.
+     */
+    @Param({"1000", "20000"})
+    private long work;
+
+    /**
+     * Prepares the connections and the request.
+     */
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        queues = new InboundQueue[CONNECTIONS];
+        for (int i = 0; i < CONNECTIONS; i++)
+            queues[i] = new InboundQueue(executor, 64);
+        request = "{\"req\":\"GAME.UPDATE\",\"uuid\":\"" + UUID.randomUUID() + "\",\"gameID\":\"" + UUID.randomUUID() +
+                "\"}";
+    }
+
+    /**
+     * Stops the request threads.
+     */
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param blackhole Consumes the parsed request.
+     */
+    @Benchmark
+    public void inline(Blackhole blackhole) {
+        handle(blackhole);
+    }
+
+    /**
+     * @param blackhole Consumes the parsed request.
+     * @return Whether the request was queued.
+     */
+    @Benchmark
+    public boolean queued(Blackhole blackhole) {
+        final InboundQueue queue = queues[next];
+        next = (next + 1) % CONNECTIONS;
+        return queue.offer(() -> handle(blackhole));
+    }
+
+    /**
+     * @param blackhole Consumes the parsed request.
+     */
+    private void handle(Blackhole blackhole) {
+        blackhole.consume(JsonParser.parseString(request).getAsJsonObject());
+        Blackhole.consumeCPU(work);
+    }
+}
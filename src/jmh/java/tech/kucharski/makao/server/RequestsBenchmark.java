@@ -0,0 +1,72 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective request construction with the precompiled dispatch table in {@link Requests}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestsBenchmark {
+    private JsonObject jsonObject;
+    @Param({"HEARTBEAT", "AUTH", "GET_GAMES", "CREATE_GAME", "GAME.PLAY_CARD", "GAME.DRAW_CARD", "GAME.START_GAME",
+            "GAME.LIST", "GAME.JOIN", "GAME.UPDATE", "CHANGE_AVATAR", "CHANGE_NAME"})
+    private String req;
+
+    /**
+     * Prepares a message containing fields required by every request.
+     */
+    @Setup
+    public void setup() {
+        jsonObject = new JsonObject();
+        jsonObject.addProperty("req", req);
+        jsonObject.addProperty("uuid", UUID.randomUUID().toString());
+        jsonObject.addProperty("clientID", UUID.randomUUID().toString());
+        jsonObject.addProperty("playerID", UUID.randomUUID().toString());
+        jsonObject.addProperty("gameID", UUID.randomUUID().toString());
+        jsonObject.addProperty("name", "Benchmark");
+        final JsonArray cards = new JsonArray();
+        cards.add(UUID.randomUUID().toString());
+        jsonObject.add("cards", cards);
+        jsonObject.add("request", JsonNull.INSTANCE);
+    }
+
+    /**
+     * @return Request created through the dispatch table.
+     * @throws InvalidRequestException When request is invalid
+     */
+    @Benchmark
+    public Request dispatchTable() throws InvalidRequestException {
+        final Requests request = Requests.fromWireName(jsonObject.get("req").getAsString());
+        if (request == null) throw new IllegalStateException();
+        return request.create(jsonObject);
+    }
+
+    /**
+     * @return Request created reflectively, the way it was before the dispatch table.
+     * @throws ReflectiveOperationException When request cannot be constructed
+     * @throws InvalidRequestException      When request is invalid
+     */
+    @Benchmark
+    public Request reflective() throws ReflectiveOperationException, InvalidRequestException {
+        final Requests request = Requests.valueOf(jsonObject.get("req").getAsString().replace(".", "__"));
+        try {
+            return (Request) request.getClazz().getDeclaredMethod("fromJSON", JsonObject.class).invoke(null, jsonObject);
+        } catch (InvocationTargetException e) {
+            if (e.getTargetException() instanceof InvalidRequestException)
+                throw (InvalidRequestException) e.getTargetException();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.kucharski.makao.game.deck.Card;
+import tech.kucharski.makao.game.deck.Deck;
+import tech.kucharski.makao.server.messages.game.DeckUpdatedMessage;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares the {@link WireProtocol#JSON} and {@link WireProtocol#BINARY} encodings of the card-carrying messages of a
+ * game. The setup plays a whole game and prints the total size of its messages in both protocols, the benchmarks
+ * measure encoding of the messages of the final turn: the full state, the top of the discard pile and the hands of all
+ * players.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireProtocolBenchmark {
+    /**
+     * Envelope of a JSON message: the type, the game ID and the message ID.
+     */
+    private static final int JSON_ENVELOPE =
+            "{\"req\":\"GAME.DECK_UPDATED\",\"id\":\"00000000-0000-0000-0000-000000000000\",\"_msgID\":1000}".length();
+    /**
+     * Envelope of a binary message: the type, the message ID and the game ID.
+     */
+    private static final int BINARY_ENVELOPE = 1 + 4 + 16;
+    private final List<UUID> players = new ArrayList<>();
+    private Deck deck;
+    @Param({"1", "2"})
+    private int decks;
+
+    /**
+     * Plays a game: every player gets 5 cards, then players play their first card, every third turn a card is drawn
+     * instead. The game ends when a player has no cards left.
+     */
+    @Setup
+    public void setup() {
+        deck = new Deck(decks, Map.of());
+        for (int i = 0; i < decks * 4; i++) {
+            final UUID player = UUID.randomUUID();
+            players.add(player);
+            deck.givePlayerCards(player, 5);
+        }
+        long json = JSON_ENVELOPE + json(deck.toJSONObject());
+        long binary = BINARY_ENVELOPE + binary(deck::writeBinary);
+        int turns = 0;
+        while (true) {
+            final UUID player = players.get(turns % players.size());
+            final List<UUID> hand = deck.getPlayerCardUUIDs(player);
+            if (hand.isEmpty() || turns == 10_000) break;
+            if (turns % 3 == 2) {
+                deck.givePlayerCards(player, 1);
+            } else {
+                final Card card = deck.getCardByUUID(hand.get(0));
+                if (card == null) throw new IllegalStateException();
+                deck.playCard(card);
+                json += JSON_ENVELOPE + json(deck.toSimpleJSONObject(DeckUpdatedMessage.TOP_CARDS).getAsJsonObject());
+                binary += BINARY_ENVELOPE + binary(out -> deck.writeSimpleBinary(out, DeckUpdatedMessage.TOP_CARDS));
+            }
+            json += JSON_ENVELOPE + json(hand(player));
+            binary += BINARY_ENVELOPE + binary(out -> deck.writeCardIndices(out, deck.getPlayerCardUUIDs(player)));
+            turns++;
+        }
+        System.out.printf("%n%d decks, %d turns: JSON %d bytes, binary %d bytes (%.1f%%)%n", decks, turns, json,
+                binary, binary * 100d / json);
+    }
+
+    /**
+     * @param player A player.
+     * @return Hand of the player as sent in JSON.
+     */
+    private JsonObject hand(UUID player) {
+        final JsonObject jsonObject = new JsonObject();
+        final JsonArray cards = new JsonArray();
+        deck.getPlayerCardUUIDs(player).forEach(uuid -> cards.add(uuid.toString()));
+        jsonObject.add("cards", cards);
+        return jsonObject;
+    }
+
+    /**
+     * @param jsonObject A JSON object.
+     * @return Size of the object in UTF-8.
+     */
+    private static int json(JsonObject jsonObject) {
+        return jsonObject.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * @param writer Writes the data.
+     * @return Size of the data.
+     */
+    private static int binary(Consumer<BinaryWriter> writer) {
+        final BinaryWriter out = new BinaryWriter();
+        writer.accept(out);
+        return out.size();
+    }
+
+    /**
+     * @param blackhole Consumes the messages.
+     */
+    @Benchmark
+    public void json(Blackhole blackhole) {
+        blackhole.consume(deck.toJSONObject().toString().getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(deck.toSimpleJSONObject(DeckUpdatedMessage.TOP_CARDS).toString()
+                .getBytes(StandardCharsets.UTF_8));
+        for (UUID player : players)
+            blackhole.consume(hand(player).toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param blackhole Consumes the messages.
+     */
+    @Benchmark
+    public void binary(Blackhole blackhole) {
+        final BinaryWriter state = new BinaryWriter(512);
+        deck.writeBinary(state);
+        blackhole.consume(state.toByteArray());
+        final BinaryWriter discarded = new BinaryWriter(256);
+        deck.writeSimpleBinary(discarded, DeckUpdatedMessage.TOP_CARDS);
+        blackhole.consume(discarded.toByteArray());
+        for (UUID player : players) {
+            final BinaryWriter hand = new BinaryWriter();
+            deck.writeCardIndices(hand, deck.getPlayerCardUUIDs(player));
+            blackhole.consume(hand.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tech.kucharski.makao.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one liveness tick of the server with many tracked clients. Clients get a heartbeat every 2.5 s, the wheel
+ * ticks every 100 ms and only visits the clients due in that tick, the sweep visits every client on every tick like the
+ * former global heartbeat timer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashedTimingWheelBenchmark {
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(2500);
+    private final List<long[]> deadlines = new ArrayList<>();
+    @Param({"100000"})
+    private int clients;
+    private long now;
+    private HashedTimingWheel<long[]> wheel;
+
+    /**
+     * Schedules the clients with deadlines spread over one heartbeat interval.
+     */
+    @Setup
+    public void setup() {
+        wheel = new HashedTimingWheel<>(TICK, TimeUnit.NANOSECONDS, 64, 0);
+        now = 0;
+        deadlines.clear();
+        for (int i = 0; i < clients; i++) {
+            final long[] deadline = {(long) i * INTERVAL / clients};
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline[0]);
+        }
+    }
+
+    /**
+     * @param blackhole Consumes the clients due.
+     */
+    @Benchmark
+    public void wheel(Blackhole blackhole) {
+        now += TICK;
+        final long time = now;
+        wheel.tick(time, deadline -> {
+            blackhole.consume(deadline);
+            deadline[0] = time + INTERVAL;
+            wheel.schedule(deadline, deadline[0]);
+        });
+    }
+
+    /**
+     * @param blackhole Consumes the clients due.
+     */
+    @Benchmark
+    public void sweep(Blackhole blackhole) {
+        now += TICK;
+        for (long[] deadline : deadlines) {
+            if (deadline[0] <= now) {
+                blackhole.consume(deadline);
+                deadline[0] = now + INTERVAL;
+            }
+        }
+    }
+}
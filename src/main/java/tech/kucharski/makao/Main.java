@@ -1,9 +1,29 @@
 package tech.kucharski.makao;
 
+import tech.kucharski.makao.server.ServerSettings;
+
 import static tech.kucharski.makao.util.Logger.log;
+import static tech.kucharski.makao.util.Logger.warning;
 
 /**
  * Launcher class
+ * <p>
+ * Usage: {@code java -jar makao.jar [options]}
+ * <ul>
+ *     <li>{@code --ip <ip>} - bind IP, 0.0.0.0 by default</li>
+ *     <li>{@code --port <port>} - bind port, 62137 by default</li>
+ *     <li>{@code --compression} - enables permessage-deflate compression</li>
+ *     <li>{@code --compression-threshold <bytes>} - smallest compressed message, 1024 by default</li>
+ *     <li>{@code --decoder-threads <threads>} - number of decoder threads, one per processor by default</li>
+ *     <li>{@code --listeners <listeners>} - number of listeners accepting on the port, 1 by default</li>
+ *     <li>{@code --inline-requests} - handles requests on the decoder threads instead of the request threads</li>
+ *     <li>{@code --request-threads <threads>} - number of request threads, one per processor by default</li>
+ *     <li>{@code --max-in-flight-requests <requests>} - requests of a client not yet handled before further ones
+ *     are rejected, 64 by default</li>
+ *     <li>{@code --lobby-update-window <milliseconds>} - window over which the lobby changes are sent as one
+ *     message, 0 sends every change immediately, 100 by default</li>
+ *     <li>{@code --game-threads <threads>} - number of threads running the games, one per processor by default</li>
+ * </ul>
  */
 public class Main {
     /**
@@ -13,8 +33,11 @@ public class Main {
         log("[Launcher] Hello! Preparing everything, be done in a second...");
         System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "OFF");
 
-        boolean nextIP = false, nextPort = false;
+        boolean nextIP = false, nextPort = false, nextCompressionThreshold = false, nextDecoderThreads = false,
+                nextListeners = false, nextRequestThreads = false, nextMaxInFlightRequests = false,
+                nextLobbyUpdateWindow = false, nextGameThreads = false;
         String IP = "0.0.0.0", port = "62137";
+        final ServerSettings settings = new ServerSettings();
         for (String s : args) {
             if (nextIP) {
                 log("[Launcher] Changed bind IP to " + s);
@@ -26,13 +49,96 @@ public class Main {
                 port = s;
                 nextPort = false;
                 continue;
+            } else if (nextCompressionThreshold) {
+                try {
+                    settings.setCompressionThreshold(Integer.parseInt(s));
+                    log("[Launcher] Changed compression threshold to " + settings.getCompressionThreshold());
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid compression threshold " + s + ", ignoring.");
+                }
+                nextCompressionThreshold = false;
+                continue;
+            } else if (nextDecoderThreads) {
+                try {
+                    settings.setDecoderThreads(Integer.parseInt(s));
+                    log("[Launcher] Changed number of decoder threads to " + settings.getDecoderThreads());
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid number of decoder threads " + s + ", ignoring.");
+                }
+                nextDecoderThreads = false;
+                continue;
+            } else if (nextListeners) {
+                try {
+                    settings.setListeners(Integer.parseInt(s));
+                    log("[Launcher] Changed number of listeners to " + settings.getListeners());
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid number of listeners " + s + ", ignoring.");
+                }
+                nextListeners = false;
+                continue;
+            } else if (nextRequestThreads) {
+                try {
+                    settings.setRequestThreads(Integer.parseInt(s));
+                    log("[Launcher] Changed number of request threads to " + settings.getRequestThreads());
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid number of request threads " + s + ", ignoring.");
+                }
+                nextRequestThreads = false;
+                continue;
+            } else if (nextMaxInFlightRequests) {
+                try {
+                    settings.setMaxInFlightRequests(Integer.parseInt(s));
+                    log("[Launcher] Changed max in-flight requests to " + settings.getMaxInFlightRequests());
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid max in-flight requests " + s + ", ignoring.");
+                }
+                nextMaxInFlightRequests = false;
+                continue;
+            } else if (nextLobbyUpdateWindow) {
+                try {
+                    settings.setLobbyUpdateWindow(Long.parseLong(s));
+                    log("[Launcher] Changed lobby update window to " + settings.getLobbyUpdateWindow() + "ms");
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid lobby update window " + s + ", ignoring.");
+                }
+                nextLobbyUpdateWindow = false;
+                continue;
+            } else if (nextGameThreads) {
+                try {
+                    settings.setGameThreads(Integer.parseInt(s));
+                    log("[Launcher] Changed number of game threads to " + settings.getGameThreads());
+                } catch (NumberFormatException e) {
+                    warning("[Launcher] Invalid number of game threads " + s + ", ignoring.");
+                }
+                nextGameThreads = false;
+                continue;
             }
             if (s.equalsIgnoreCase("--ip")) {
                 nextIP = true;
             } else if (s.equalsIgnoreCase("--port")) {
                 nextPort = true;
+            } else if (s.equalsIgnoreCase("--compression")) {
+                log("[Launcher] Enabled permessage-deflate compression");
+                settings.setCompression(true);
+            } else if (s.equalsIgnoreCase("--compression-threshold")) {
+                nextCompressionThreshold = true;
+            } else if (s.equalsIgnoreCase("--decoder-threads")) {
+                nextDecoderThreads = true;
+            } else if (s.equalsIgnoreCase("--listeners")) {
+                nextListeners = true;
+            } else if (s.equalsIgnoreCase("--inline-requests")) {
+                log("[Launcher] Enabled inline requests");
+                settings.setInlineRequests(true);
+            } else if (s.equalsIgnoreCase("--request-threads")) {
+                nextRequestThreads = true;
+            } else if (s.equalsIgnoreCase("--max-in-flight-requests")) {
+                nextMaxInFlightRequests = true;
+            } else if (s.equalsIgnoreCase("--lobby-update-window")) {
+                nextLobbyUpdateWindow = true;
+            } else if (s.equalsIgnoreCase("--game-threads")) {
+                nextGameThreads = true;
             }
         }
-        new Makao(IP, port);
+        new Makao(IP, port, settings);
     }
 }
@@ -3,6 +3,7 @@ package tech.kucharski.makao;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.GameManager;
 import tech.kucharski.makao.server.Server;
+import tech.kucharski.makao.server.ServerSettings;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -23,6 +24,15 @@ public class Makao {
      * @param port Bind port
      */
     Makao(@NotNull String IP, @NotNull String port) {
+        this(IP, port, new ServerSettings());
+    }
+
+    /**
+     * @param IP       Bind IP
+     * @param port     Bind port
+     * @param settings Server settings
+     */
+    Makao(@NotNull String IP, @NotNull String port, @NotNull ServerSettings settings) {
         if (instance != null) throw new RuntimeException("There can only be one Makao instance. Use getInstance().");
         instance = this;
         log("[Makao] Starting...");
@@ -52,10 +62,17 @@ public class Makao {
 
         log("[Makao] Initializing game manager...");
 
-        gameManager = new GameManager();
+        gameManager = new GameManager(settings.getGameThreads(), settings.getLobbyUpdateWindow());
 
         log("[Makao] Starting server...");
-        server = new Server(new InetSocketAddress(IP, numericPort));
+        Server server = null;
+        try {
+            server = new Server(new InetSocketAddress(IP, numericPort), settings);
+        } catch (IllegalStateException e) {
+            error("[Makao] Failed to create the listeners. Aborting...");
+            fatal(e);
+        }
+        this.server = server;
         server.start();
     }
 
@@ -17,34 +17,106 @@ import tech.kucharski.makao.server.Message;
 import tech.kucharski.makao.server.messages.GameRemovedMessage;
 import tech.kucharski.makao.server.messages.GameUpdatedMessage;
 import tech.kucharski.makao.server.messages.game.*;
+import tech.kucharski.makao.util.BinaryConvertible;
+import tech.kucharski.makao.util.BinaryWriter;
 import tech.kucharski.makao.util.JSONConvertible;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+
+import static tech.kucharski.makao.util.Logger.error;
 
 /**
  * A game of Makao.
+ * <p>
+ * The game is confined to its executor, see {@link GameLoops}: methods changing or reading the state of the game must
+ * be called from {@link #execute(Runnable)}. Messages are encoded when they are sent, so also on the executor. Only the
+ * ID, the phase, the deck and the roster of the players may be read from other threads.
+ * <p>
+ * Changes of the state shared with all players are broadcast as compact deltas, each carrying the state version it
+ * results in, see {@link #getStateVersion()}. The full snapshot, sent when a player joins, when the game starts and in
+ * response to {@code GAME.UPDATE}, carries the version it was taken at. A client ignores deltas with a version not
+ * above its own and requests a snapshot when it sees a gap in the versions.
  */
-public class Game implements JSONConvertible {
+public class Game implements JSONConvertible, BinaryConvertible {
     private final Map<CardType, CardSettings> cardSettings = new HashMap<>();
-    private final List<CardValidator> cardValidators = Collections.synchronizedList(new ArrayList<>());
-    private final Map<UUID, UUID> clientPlayerMap = Collections.synchronizedMap(new HashMap<>());
+    private final Map<UUID, UUID> clientPlayerMap = new HashMap<>();
+    @NotNull
+    private final Executor executor;
     private final UUID gameID;
-    private final List<Player> players = Collections.synchronizedList(new ArrayList<>());
-    private final TurnManager turnManager = new TurnManager();
-    private Deck deck = null;
+    /**
+     * Players by their ID, an index of {@link #players}.
+     */
+    private final Map<UUID, Player> playerMap = new HashMap<>();
+    /**
+     * Players in the order of their seats.
+     */
+    private final List<Player> players = new ArrayList<>();
+    private final TurnManager turnManager = new TurnManager(players);
+    private volatile Deck deck = null;
     private boolean drawnCard = false;
+    /**
+     * Version of the shared state, incremented by every change broadcast as a delta.
+     */
+    private long stateVersion = 0;
+    /**
+     * Card types that can be placed on top of the current card, see {@link CardMask}.
+     */
+    private long playable = 0;
+    /**
+     * Card types with the {@link ValidatorPreset#REQUIRE_COLOR} and {@link ValidatorPreset#REQUIRE_VALUE} presets.
+     */
+    private long requireColorTypes = 0, requireValueTypes = 0;
     /**
      * State of the game.
      */
-    private GamePhase gamePhase = GamePhase.PREPARING;
+    private volatile GamePhase gamePhase = GamePhase.PREPARING;
+    /**
+     * Immutable copy of {@link #players}, replaced after every change, so it can be read from other threads.
+     */
+    @NotNull
+    private volatile List<Player> roster = List.of();
 
     /**
+     * Creates a game running its commands on the calling thread.
+     *
      * @param gameID ID of the game.
      */
     public Game(UUID gameID) {
+        this(gameID, Runnable::run);
+    }
+
+    /**
+     * @param gameID   ID of the game.
+     * @param executor Single-threaded executor running the commands of the game.
+     */
+    public Game(UUID gameID, @NotNull Executor executor) {
         this.gameID = gameID;
+        this.executor = executor;
         for (CardType type : CardType.values())
             cardSettings.put(type, type.getDefaultSettings());
+        cardSettings.forEach((type, settings) -> {
+            if (settings.validatorPreset() == ValidatorPreset.REQUIRE_COLOR)
+                requireColorTypes |= CardMask.of(type);
+            else if (settings.validatorPreset() == ValidatorPreset.REQUIRE_VALUE)
+                requireValueTypes |= CardMask.of(type);
+        });
+    }
+
+    /**
+     * Runs a command on the executor of the game, after all commands submitted before.
+     *
+     * @param command Command reading or changing the game.
+     */
+    public void execute(@NotNull Runnable command) {
+        executor.execute(() -> {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                error("[Game] Exception in game " + gameID);
+                error(e);
+            }
+        });
     }
 
     /**
@@ -59,17 +131,37 @@ public class Game implements JSONConvertible {
         if (getGameState() != GamePhase.PREPARING)
             throw new IllegalStateException("A player can only be added in preparing phase of the game.");
 
-        final Player player = new Player(Makao.getInstance().getGameManager().getUniquePlayerID(clientID, this));
+        final Player player = new Player(Makao.getInstance().getGameManager().getUniquePlayerID(clientID, this),
+                clientID, Makao.getInstance().getServer().getClient(clientID), this);
+        player.setSeat(players.size());
         players.add(player);
+        playerMap.put(player.getUUID(), player);
+        roster = List.copyOf(players);
         clientPlayerMap.put(clientID, player.getUUID());
-        turnManager.addPlayer(player.getUUID());
+        stateVersion++;
         send(player, new PlayerIDAssignedMessage(this, player));
         sendUpdate(player);
         sendAll(new PlayerJoinedMessage(this, player));
-        new GameUpdatedMessage(this).broadcast();
+        sendLobbyUpdate();
         return player;
     }
 
+    /**
+     * Serializes the lobby entry of the game again and publishes the change to the lobby subscribers. Has to be called
+     * after the players of a joinable game change, including their names and avatars. The phase is checked again on the
+     * executor, a game started after the update was queued is not published again.
+     *
+     * @return Whether the game is joinable and the change was published.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public boolean sendLobbyUpdate() {
+        if (getGameState() != GamePhase.PREPARING)
+            return false;
+        Makao.getInstance().getGameManager().getLobby().update(this);
+        Makao.getInstance().getGameManager().publishLobbyChange(this, new GameUpdatedMessage(this));
+        return true;
+    }
+
     /**
      * @return State of the game
      */
@@ -94,19 +186,34 @@ public class Game implements JSONConvertible {
      * @param message A message.
      */
     private void send(@NotNull Player player, Message message) {
-        final Client client = Makao.getInstance().getServer()
-                .getClient(Makao.getInstance().getGameManager().getClientID(player.getUUID()));
-        if (client != null && client.getClientState() == ClientState.CONNECTED)
+        final Client client = getConnectedClient(player);
+        if (client != null)
             message.send(client.getSocket());
     }
 
     /**
-     * Sends a message to all players.
+     * @param player A player.
+     * @return Client of the player if it is connected, null otherwise.
+     */
+    @Nullable
+    private Client getConnectedClient(@NotNull Player player) {
+        final Client client = player.getClient();
+        return client != null && client.getClientState() == ClientState.CONNECTED ? client : null;
+    }
+
+    /**
+     * Sends a message to all players. The message is serialized only once.
      *
      * @param message Message to be sent.
      */
     private void sendAll(@NotNull final Message message) {
-        players.forEach(player -> send(player, message));
+        final List<Client> clients = new ArrayList<>(players.size());
+        for (int i = 0, n = players.size(); i < n; i++) {
+            final Client client = getConnectedClient(players.get(i));
+            if (client != null)
+                clients.add(client);
+        }
+        message.send(clients);
     }
 
     /**
@@ -114,7 +221,7 @@ public class Game implements JSONConvertible {
      * @return If player is an admin.
      */
     public boolean checkAdmin(@NotNull UUID playerID) {
-        if (players.size() == 0) return false;
+        if (players.isEmpty()) return false;
         return players.get(0).getUUID().equals(playerID);
     }
 
@@ -134,7 +241,12 @@ public class Game implements JSONConvertible {
             throw new IllegalStateException();
         drawnCard = true;
         deck.givePlayerCards(playerID, 1);
+        stateVersion++;
+        sendAll(new CardsMovedMessage(this, player, List.of(), 1));
+        stateVersion++;
+        sendAll(new DeckUpdatedMessage(this));
         sendUpdatedCardsToPlayer(player);
+        sendPlayableCards(player);
     }
 
     /**
@@ -143,7 +255,7 @@ public class Game implements JSONConvertible {
      */
     @Nullable
     private Player getPlayer(UUID playerID) {
-        return players.stream().filter(player -> player.getUUID().equals(playerID)).findFirst().orElse(null);
+        return playerMap.get(playerID);
     }
 
     /**
@@ -171,14 +283,16 @@ public class Game implements JSONConvertible {
     }
 
     /**
+     * Plays cards from the hand of a player. All cards are validated before any of them is played.
+     *
      * @param playerID Player playing a card.
      * @param cards    A card being played.
      * @param request  Requested value (for supported cards)
      * @throws PlayerNotFoundException  Player wasn't found.
-     * @throws CardNotFoundException    Card wasn't found.
+     * @throws CardNotFoundException    Card wasn't found in the hand of the player.
      * @throws InvalidCardException     Card cannot be played right now.
      * @throws WrongTurnException       It's not player's turn.
-     * @throws IllegalArgumentException If request is null when it is required.
+     * @throws IllegalArgumentException If request is null when it is required or invalid.
      */
     public void playCard(@NotNull UUID playerID, @NotNull List<UUID> cards, @Nullable String request) throws PlayerNotFoundException,
             CardNotFoundException, InvalidCardException, WrongTurnException, IllegalArgumentException {
@@ -187,16 +301,19 @@ public class Game implements JSONConvertible {
             throw new PlayerNotFoundException();
         if (!turnManager.getCurrentPlayer().equals(playerID))
             throw new WrongTurnException();
+        final List<Card> played = new ArrayList<>(cards.size());
         Card lastCard = null;
         for (UUID card : cards) {
             final Card c = deck.getCardByUUID(card);
-            if (c == null)
+            if (c == null || !deck.isHeldBy(playerID, c))
                 throw new CardNotFoundException();
+            if (played.contains(c))
+                throw new InvalidCardException();
             if (lastCard == null && !validateCard(c))
                 throw new InvalidCardException();
             if (lastCard != null && lastCard.getType().getValue() != c.getType().getValue())
                 throw new InvalidCardException();
-            deck.playCard(c);
+            played.add(c);
             lastCard = c;
         }
         if (lastCard == null)
@@ -205,17 +322,37 @@ public class Game implements JSONConvertible {
         if ((preset == ValidatorPreset.REQUIRE_COLOR || preset == ValidatorPreset.REQUIRE_VALUE) && request == null) {
             throw new IllegalArgumentException();
         }
+        //Throws on an invalid request, before the cards are played
+        if (preset == ValidatorPreset.REQUIRE_COLOR)
+            CardColor.valueOf(request);
+        else if (preset == ValidatorPreset.REQUIRE_VALUE)
+            CardValue.valueOf(request);
+        final List<UUID> playedUUIDs = new ArrayList<>(played.size());
+        for (Card card : played) {
+            deck.playCard(card);
+            playedUUIDs.add(card.getUUID());
+        }
         switch (preset) {
             case STANDARD -> setStandardValidator(lastCard.getType());
             case REQUIRE_COLOR -> setRequiredColorValidator(lastCard.getType(), request);
             case REQUIRE_VALUE -> setRequiredValueValidator(lastCard.getType(), request);
             default -> setAcceptAllValidator();
         }
+        stateVersion++;
+        sendAll(new CardsMovedMessage(this, player, playedUUIDs, 0));
+        stateVersion++;
         sendAll(new DeckUpdatedMessage(this));
         sendUpdatedCardsToPlayer(player);
         nextTurn();
     }
 
+    /**
+     * @return Version of the state shared with all players.
+     */
+    public long getStateVersion() {
+        return stateVersion;
+    }
+
     /**
      * @return Current player ID.
      */
@@ -228,7 +365,15 @@ public class Game implements JSONConvertible {
      * @return Whether game contains this client
      */
     public boolean hasClient(@NotNull UUID clientID) {
-        return players.stream().anyMatch(player -> clientID.equals(Makao.getInstance().getGameManager().getClientID(player.getUUID())));
+        return clientPlayerMap.containsKey(clientID);
+    }
+
+    /**
+     * @return Immutable list of the players, may be read from other threads.
+     */
+    @NotNull
+    public List<Player> getRoster() {
+        return roster;
     }
 
     /**
@@ -239,6 +384,14 @@ public class Game implements JSONConvertible {
         send(player, new SelfCardsUpdatedMessage(this, deck.getPlayerCardUUIDs(player.getUUID())));
     }
 
+    /**
+     * @param player Player whose turn it is, the cards they can play should be sent to.
+     */
+    private void sendPlayableCards(@NotNull Player player) {
+        if (deck == null) return;
+        send(player, new PlayableCardsMessage(this, deck.getPlayableCards(player.getUUID(), playable)));
+    }
+
     /**
      * @param type Type of the {@link Card} that {@link CardSettings} should be returned for.
      * @return {@link CardSettings} of {@link CardType}.
@@ -253,20 +406,37 @@ public class Game implements JSONConvertible {
     public void nextTurn() {
         drawnCard = false;
         turnManager.nextTurn();
-        sendAll(new NextTurnMessage(this));
+        sendTurn();
         //TODO Start timer
 
     }
 
+    /**
+     * Sends the turn holder to all players and the cards it can play to the turn holder.
+     */
+    private void sendTurn() {
+        stateVersion++;
+        sendAll(new NextTurnMessage(this));
+        final Player player = getPlayer(turnManager.getCurrentPlayer());
+        if (player != null)
+            sendPlayableCards(player);
+    }
+
     /**
      * @param card Card to be validated.
      * @return Whether card can be played.
      */
     private boolean validateCard(@NotNull Card card) {
-        for (CardValidator cardValidator : cardValidators) {
-            if (cardValidator.validate(card)) return true;
-        }
-        return false;
+        return CardMask.contains(playable, card.getType());
+    }
+
+    /**
+     * Replaces the validators of the current card with a custom validator, it is compiled to a mask once.
+     *
+     * @param validator Validator of the cards that can be placed on top of the current card.
+     */
+    public void setValidator(@NotNull CardValidator validator) {
+        playable = validator.toMask();
     }
 
     /**
@@ -279,32 +449,21 @@ public class Game implements JSONConvertible {
             setStandardValidator(type);
             return;
         }
-        cardValidators.clear();
-        cardValidators.add(new RequireColorValidator(CardColor.valueOf(request)));
-        cardSettings.forEach((type1, settings) -> {
-            if (settings.validatorPreset() == ValidatorPreset.REQUIRE_COLOR)
-                cardValidators.add(new CombinedValidator(
-                        new RequireValueValidator(type1.getValue()),
-                        new RequireColorValidator(type1.getColor())
-                ));
-        });
+        playable = CardMask.of(CardColor.valueOf(request)) | requireColorTypes;
     }
 
     /**
      * Sets validators to accept everything.
      */
     private void setAcceptAllValidator() {
-        cardValidators.clear();
-        cardValidators.add(new AcceptAllValidator());
+        playable = CardMask.ALL;
     }
 
     /**
      * @param type Type of the card on top of the stack.
      */
     private void setStandardValidator(@NotNull CardType type) {
-        cardValidators.clear();
-        cardValidators.add(new RequireColorValidator(type.getColor()));
-        cardValidators.add(new RequireValueValidator(type.getValue()));
+        playable = CardMask.of(type.getColor()) | CardMask.of(type.getValue());
     }
 
     /**
@@ -317,15 +476,7 @@ public class Game implements JSONConvertible {
             setStandardValidator(type);
             return;
         }
-        cardValidators.clear();
-        cardValidators.add(new RequireValueValidator(CardValue.valueOf(request)));
-        cardSettings.forEach((type1, settings) -> {
-            if (settings.validatorPreset() == ValidatorPreset.REQUIRE_VALUE)
-                cardValidators.add(new CombinedValidator(
-                        new RequireValueValidator(type1.getValue()),
-                        new RequireColorValidator(type1.getColor())
-                ));
-        });
+        playable = CardMask.of(CardValue.valueOf(request)) | requireValueTypes;
     }
 
     /**
@@ -339,14 +490,26 @@ public class Game implements JSONConvertible {
         final Player player = getPlayer(uuid);
         if (player == null) return;
 
-        players.remove(player);
+        players.remove(player.getSeat());
+        for (int i = player.getSeat(); i < players.size(); i++)
+            players.get(i).setSeat(i);
+        playerMap.remove(uuid);
+        roster = List.copyOf(players);
+        clientPlayerMap.remove(player.getClientID());
+        final boolean turnHolder = turnManager.removeSeat(player.getSeat());
         if (deck != null)
             deck.removePlayer(player.getUUID());
         Makao.getInstance().getGameManager().removePlayer(uuid);
+        stateVersion++;
         sendAll(new PlayerLeftMessage(this, player));
         if (getGameState() == GamePhase.PREPARING)
-            new GameUpdatedMessage(this).broadcast();
-        if (players.size() == 0) {
+            sendLobbyUpdate();
+        else if (turnHolder && !players.isEmpty()) {
+            //The turn passed to the player who took the seat
+            drawnCard = false;
+            sendTurn();
+        }
+        if (players.isEmpty()) {
             Makao.getInstance().getGameManager().removeGame(this);
         }
     }
@@ -360,17 +523,18 @@ public class Game implements JSONConvertible {
 
         setGamePhase(GamePhase.IN_GAME);
 
-        new GameRemovedMessage(this).broadcast();
+        Makao.getInstance().getGameManager().getLobby().update(this);
+        Makao.getInstance().getGameManager().publishLobbyChange(this, new GameRemovedMessage(this));
 
         turnManager.setRandom();
         deck = new Deck((players.size() - 1) / 4 + 1, cardSettings);
-        sendUpdate();
-        players.forEach(player -> {
-            deck.givePlayerCards(player.getUUID(), 5);
-            sendUpdatedCardsToPlayer(player);
-        });
+        players.forEach(player -> deck.givePlayerCards(player.getUUID(), 5));
         //Deck starting card must be normal or at very least treated as such.
         setStandardValidator(deck.getCurrentTopCard().getType());
+        //The cards of the deck are only sent in a snapshot
+        stateVersion++;
+        sendUpdate();
+        players.forEach(this::sendUpdatedCardsToPlayer);
         nextTurn();
     }
 
@@ -382,6 +546,8 @@ public class Game implements JSONConvertible {
 
         obj.addProperty("uuid", gameID.toString());
 
+        obj.addProperty("version", stateVersion);
+
         obj.addProperty("phase", gamePhase.name());
 
         JsonArray players = new JsonArray();
@@ -404,12 +570,49 @@ public class Game implements JSONConvertible {
         obj.addProperty("phase", gamePhase.name());
 
         JsonArray players = new JsonArray();
-        this.players.forEach(player -> players.add(player.toJSONObject()));
+        roster.forEach(player -> players.add(player.toJSONObject()));
 
         obj.add("players", players);
         return obj;
     }
 
+    /**
+     * Binary counterpart of {@link #toJSONObject()}.
+     *
+     * @param out Writer the binary representation of the object shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeUUID(gameID);
+        out.writeEnum(gamePhase);
+        writePlayersBinary(out);
+    }
+
+    /**
+     * Binary counterpart of {@link #toFullJSONObject()}.
+     *
+     * @param out Writer the binary representation of the object shall be written to.
+     */
+    public void writeFullBinary(@NotNull BinaryWriter out) {
+        out.writeUUID(gameID);
+        out.writeLong(stateVersion);
+        out.writeEnum(gamePhase);
+        out.writeBoolean(deck != null);
+        if (deck != null)
+            deck.writeBinary(out);
+        writePlayersBinary(out);
+        out.writeUUID(turnManager.getCurrentPlayer());
+    }
+
+    /**
+     * @param out Writer the players shall be written to.
+     */
+    private void writePlayersBinary(@NotNull BinaryWriter out) {
+        final List<Player> players = roster;
+        out.writeByte(players.size());
+        players.forEach(out::write);
+    }
+
     /**
      * @param playerID Player to be updated
      */
@@ -435,6 +638,9 @@ public class Game implements JSONConvertible {
      */
     private void setGamePhase(@SuppressWarnings("SameParameterValue") GamePhase gamePhase) {
         this.gamePhase = gamePhase;
-        sendUpdate();
+        if (gamePhase == GamePhase.FINISHED)
+            Makao.getInstance().getGameManager().onGameFinished(this);
+        stateVersion++;
+        sendAll(new PhaseChangedMessage(this));
     }
 }
@@ -0,0 +1,45 @@
+package tech.kucharski.makao.game;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single-threaded event loops running the games. A game is pinned to one loop by the hash of its ID, so all commands
+ * of a game run one after another on the same thread, while different games run in parallel.
+ */
+public class GameLoops {
+    @NotNull
+    private final ExecutorService[] loops;
+
+    /**
+     * @param threads Number of loops.
+     */
+    public GameLoops(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one game loop is required.");
+        loops = new ExecutorService[threads];
+        for (int i = 0; i < threads; i++)
+            loops[i] = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("Game-" + i).setDaemon(true).build());
+    }
+
+    /**
+     * @param gameID ID of a game.
+     * @return Loop the game is pinned to.
+     */
+    @NotNull
+    public ExecutorService get(@NotNull UUID gameID) {
+        return loops[Math.floorMod(gameID.hashCode(), loops.length)];
+    }
+
+    /**
+     * @return Number of loops.
+     */
+    public int size() {
+        return loops.length;
+    }
+}
@@ -4,36 +4,90 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tech.kucharski.makao.game.exceptions.PlayerInGameException;
 import tech.kucharski.makao.server.Client;
+import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Topic;
 import tech.kucharski.makao.server.messages.GameAddedMessage;
 import tech.kucharski.makao.server.messages.GameRemovedMessage;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A class used to manage games.
+ * A class used to manage games. The maps are concurrent, as they are used by the request threads and by the
+ * {@link GameLoops} running the games.
+ * <p>
+ * A client takes part in at most one unfinished game, its active game. The slot of a client is reserved atomically
+ * before the client is added to a game, on the request thread, and released when the player leaves, the game finishes
+ * or the game is removed, so checking it does not depend on the number of games or players.
  */
 public class GameManager {
-    private final Map<UUID, List<UUID>> clientPlayerMap = Collections.synchronizedMap(new HashMap<>());
-    private final Map<UUID, Game> games = Collections.synchronizedMap(new HashMap<>());
+    /**
+     * Active game of every client taking part in, or joining, an unfinished game.
+     */
+    private final Map<UUID, Game> activeGames = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> clientPlayerMap = new ConcurrentHashMap<>();
+    private final GameLoops gameLoops;
+    private final Map<UUID, Game> games = new ConcurrentHashMap<>();
+    private final LobbyIndex lobby = new LobbyIndex();
+    /**
+     * Collects the changes of the lobby, null if every change is published immediately.
+     */
+    @Nullable
+    private final LobbyUpdates lobbyUpdates;
     /**
      * Map that maps player UUIDs to client UUIDs.
      */
-    private final Map<UUID, UUID> playerClientMap = Collections.synchronizedMap(new HashMap<>());
-    private final Map<UUID, Game> playerGameMap = Collections.synchronizedMap(new HashMap<>());
-    private final Set<UUID> usedPlayerIDs = Collections.synchronizedSet(new HashSet<>());
+    private final Map<UUID, UUID> playerClientMap = new ConcurrentHashMap<>();
+    private final Map<UUID, Game> playerGameMap = new ConcurrentHashMap<>();
+    private final Set<UUID> usedPlayerIDs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a manager with a game loop per processor.
+     */
+    public GameManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a manager publishing every change of the lobby immediately.
+     *
+     * @param gameThreads Number of threads running the games.
+     */
+    public GameManager(int gameThreads) {
+        this(gameThreads, 0);
+    }
+
+    /**
+     * @param gameThreads       Number of threads running the games.
+     * @param lobbyUpdateWindow Window in milliseconds over which the changes of the lobby are collected, 0 to publish
+     *                          every change immediately.
+     */
+    public GameManager(int gameThreads, long lobbyUpdateWindow) {
+        gameLoops = new GameLoops(gameThreads);
+        lobbyUpdates = lobbyUpdateWindow > 0 ? new LobbyUpdates(lobby, lobbyUpdateWindow) : null;
+    }
 
     /**
      * @param client Client that was removed
      */
     public void onClientRemoved(@NotNull Client client) {
-        final List<UUID> list = new ArrayList<>(clientPlayerMap.getOrDefault(client.getUUID(), new ArrayList<>()));
-        list.forEach(uuid -> {
-            try {
-                Objects.requireNonNull(getGameByPlayerID(uuid)).removePlayer(uuid);
-            } catch (NullPointerException | IllegalStateException ignored) {
-            }
-        });
-        clientPlayerMap.remove(client.getUUID());
+        activeGames.remove(client.getUUID());
+        final Set<UUID> players = clientPlayerMap.remove(client.getUUID());
+        if (players == null) return;
+        for (UUID uuid : players) {
+            final Game game = getGameByPlayerID(uuid);
+            if (game == null) continue;
+            game.execute(() -> {
+                try {
+                    game.removePlayer(uuid);
+                } catch (IllegalStateException ignored) {
+                }
+            });
+        }
     }
 
     /**
@@ -46,40 +100,87 @@ public class GameManager {
     }
 
     /**
+     * Creates a game, the client is added to it on the loop of the game.
+     *
      * @param client Client creating a game
      * @return Newly created game
      * @throws PlayerInGameException A client is already in another game.
      */
     @SuppressWarnings("UnusedReturnValue")
     public Game createGame(@NotNull UUID client) throws PlayerInGameException {
-        if (games.values().stream().anyMatch(game -> game.getGameState() != GamePhase.FINISHED && game.hasClient(client)))
+        Game game = newGame();
+        if (!reserve(client, game))
             throw new PlayerInGameException();
-        final Game game;
-
-        synchronized (games) {
-            game = new Game(getUniqueGameID());
-            games.put(game.getGameID(), game);
+        while (games.putIfAbsent(game.getGameID(), game) != null) {
+            final Game next = newGame();
+            activeGames.replace(client, game, next);
+            game = next;
         }
 
-        game.addPlayer(client);
-
-        new GameAddedMessage(game).broadcast();
+        final Game created = game;
+        created.execute(() -> {
+            created.addPlayer(client);
+            publishLobbyChange(created, new GameAddedMessage(created));
+        });
 
-        return game;
+        return created;
     }
 
     /**
-     * @return A unique UUID in the space of game IDs.
+     * @return A game with a random ID, running on its game loop.
      */
     @NotNull
-    private UUID getUniqueGameID() {
-        synchronized (games) {
-            UUID uuid;
-            do {
-                uuid = UUID.randomUUID();
-            } while (games.containsKey(uuid));
-            return uuid;
-        }
+    private Game newGame() {
+        final UUID gameID = UUID.randomUUID();
+        return new Game(gameID, gameLoops.get(gameID));
+    }
+
+    /**
+     * Reserves the slot of a client for a game it is going to join. The slot has to be released if the client is not
+     * added to the game.
+     *
+     * @param clientID Client joining the game.
+     * @param game     Game the client joins.
+     * @return Whether the slot was reserved, false if the client already has an active game.
+     */
+    public boolean reserve(@NotNull UUID clientID, @NotNull Game game) {
+        return activeGames.putIfAbsent(clientID, game) == null;
+    }
+
+    /**
+     * Releases the slot of a client, if it is reserved for the game.
+     *
+     * @param clientID Client leaving the game.
+     * @param game     Game the client leaves.
+     */
+    public void release(@NotNull UUID clientID, @NotNull Game game) {
+        activeGames.remove(clientID, game);
+    }
+
+    /**
+     * @param clientID Client UUID
+     * @return Unfinished game the client takes part in or joins, null if there is none.
+     */
+    @Nullable
+    public Game getActiveGame(@NotNull UUID clientID) {
+        return activeGames.get(clientID);
+    }
+
+    /**
+     * Releases the slots of all players of a game that finished.
+     *
+     * @param game The finished game.
+     */
+    public void onGameFinished(@NotNull Game game) {
+        releaseAll(game);
+    }
+
+    /**
+     * @param game Game whose players' slots are released.
+     */
+    private void releaseAll(@NotNull Game game) {
+        for (Player player : game.getRoster())
+            release(player.getClientID(), game);
     }
 
     /**
@@ -87,7 +188,7 @@ public class GameManager {
      * @return List of games of the client
      */
     public List<Game> getClientGames(UUID clientID) {
-        final List<UUID> players = clientPlayerMap.getOrDefault(clientID, new ArrayList<>());
+        final Set<UUID> players = clientPlayerMap.getOrDefault(clientID, Set.of());
         final List<Game> clientGames = new ArrayList<>();
         for (UUID player : players) {
             final Game game = getGameByPlayerID(player);
@@ -110,7 +211,15 @@ public class GameManager {
      * @return List of joinable games.
      */
     public List<Game> getJoinableGames() {
-        return games.values().stream().filter(game -> game.getGameState() == GamePhase.PREPARING).toList();
+        return lobby.getSnapshot().games();
+    }
+
+    /**
+     * @return Joinable games with their serialized lobby entries.
+     */
+    @NotNull
+    public LobbyIndex getLobby() {
+        return lobby;
     }
 
     /**
@@ -121,15 +230,11 @@ public class GameManager {
      * @return A unique UUID in the space of player IDs.
      */
     public UUID getUniquePlayerID(@NotNull UUID clientID, @NotNull Game game) {
-        synchronized (playerClientMap) {
-            final UUID id = getUniquePlayerID();
-            playerClientMap.put(id, clientID);
-            playerGameMap.put(id, game);
-            if (!clientPlayerMap.containsKey(clientID))
-                clientPlayerMap.put(clientID, new ArrayList<>());
-            clientPlayerMap.get(clientID).add(id);
-            return id;
-        }
+        final UUID id = getUniquePlayerID();
+        playerClientMap.put(id, clientID);
+        playerGameMap.put(id, game);
+        clientPlayerMap.computeIfAbsent(clientID, uuid -> ConcurrentHashMap.newKeySet()).add(id);
+        return id;
     }
 
     /**
@@ -137,14 +242,11 @@ public class GameManager {
      */
     @NotNull
     private UUID getUniquePlayerID() {
-        synchronized (usedPlayerIDs) {
-            UUID uuid;
-            do {
-                uuid = UUID.randomUUID();
-            } while (usedPlayerIDs.contains(uuid));
-            usedPlayerIDs.add(uuid);
-            return uuid;
-        }
+        UUID uuid;
+        do {
+            uuid = UUID.randomUUID();
+        } while (!usedPlayerIDs.add(uuid));
+        return uuid;
     }
 
     /**
@@ -152,7 +254,23 @@ public class GameManager {
      */
     public void removeGame(@NotNull Game game) {
         games.remove(game.getGameID());
-        new GameRemovedMessage(game).broadcast();
+        releaseAll(game);
+        lobby.remove(game);
+        publishLobbyChange(game, new GameRemovedMessage(game));
+    }
+
+    /**
+     * Publishes a change of a game in the lobby to the lobby subscribers, after its entry in the lobby was updated.
+     * Within the lobby update window the change is collected, otherwise the message is published immediately.
+     *
+     * @param game    The changed game.
+     * @param message Message describing the change, published when the changes are not collected.
+     */
+    public void publishLobbyChange(@NotNull Game game, @NotNull Message message) {
+        if (lobbyUpdates != null)
+            lobbyUpdates.changed(game.getGameID());
+        else
+            message.publish(Topic.LOBBY);
     }
 
     /**
@@ -160,9 +278,12 @@ public class GameManager {
      */
     public void removePlayer(UUID playerID) {
         final UUID clientID = getClientID(playerID);
-        if (clientID != null) {
-            clientPlayerMap.getOrDefault(clientID, new ArrayList<>()).remove(playerID);
-        }
+        final Set<UUID> players = clientID == null ? null : clientPlayerMap.get(clientID);
+        if (players != null)
+            players.remove(playerID);
+        final Game game = playerGameMap.get(playerID);
+        if (clientID != null && game != null)
+            release(clientID, game);
         playerClientMap.remove(playerID);
         playerGameMap.remove(playerID);
     }
@@ -0,0 +1,119 @@
+package tech.kucharski.makao.game;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Joinable games with their lobby entries serialized in advance. An entry is serialized again only when its game
+ * changes, see {@link Game#sendLobbyUpdate()}. The whole lobby is concatenated from the serialized entries when it is
+ * requested for the first time after a change, until the next change the same snapshot is returned.
+ */
+public class LobbyIndex {
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * Incremented after every change of the entries.
+     */
+    private final AtomicLong version = new AtomicLong();
+    @NotNull
+    private volatile Snapshot snapshot = new Snapshot(0, List.of(), "[]", new BinaryWriter(2).writeShort(0).toByteArray());
+
+    /**
+     * Serializes the entry of a game again, or removes it when the game is no longer joinable. Has to be called on the
+     * executor of the game.
+     *
+     * @param game A changed game.
+     */
+    public void update(@NotNull Game game) {
+        if (game.getGameState() == GamePhase.PREPARING) {
+            final BinaryWriter out = new BinaryWriter();
+            game.writeBinary(out);
+            entries.put(game.getGameID(), new Entry(game, game.toJSONObject().toString(), out.toByteArray()));
+        } else if (entries.remove(game.getGameID()) == null) {
+            return;
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * @param game Game to be removed.
+     */
+    public void remove(@NotNull Game game) {
+        if (entries.remove(game.getGameID()) != null)
+            version.incrementAndGet();
+    }
+
+    /**
+     * @param gameID ID of a game.
+     * @return Serialized lobby entry of the game or null if the game is not joinable.
+     */
+    @Nullable
+    public Entry get(@NotNull UUID gameID) {
+        return entries.get(gameID);
+    }
+
+    /**
+     * @return Joinable games at the latest version of the lobby.
+     */
+    @NotNull
+    public Snapshot getSnapshot() {
+        final Snapshot current = snapshot;
+        final long version = this.version.get();
+        if (current.version == version)
+            return current;
+        //Tagged with the version read before copying, so a snapshot missing a concurrent change is rebuilt next time
+        final List<Entry> entries = new ArrayList<>(this.entries.values());
+        final List<Game> games = new ArrayList<>(entries.size());
+        final StringBuilder json = new StringBuilder("[");
+        int binarySize = 2;
+        for (Entry entry : entries)
+            binarySize += entry.binary.length;
+        final BinaryWriter binary = new BinaryWriter(binarySize).writeShort(entries.size());
+        for (Entry entry : entries) {
+            if (!games.isEmpty())
+                json.append(',');
+            games.add(entry.game);
+            json.append(entry.json);
+            binary.writeBytes(entry.binary);
+        }
+        final Snapshot updated = new Snapshot(version, List.copyOf(games), json.append(']').toString(),
+                binary.toByteArray());
+        snapshot = updated;
+        return updated;
+    }
+
+    /**
+     * @return Number of joinable games.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Serialized lobby entry of a game.
+     *
+     * @param game   The game.
+     * @param json   {@link Game#toJSONObject()} serialized to a string.
+     * @param binary {@link Game#writeBinary(BinaryWriter)} output.
+     */
+    public record Entry(@NotNull Game game, @NotNull String json, @NotNull byte[] binary) {
+    }
+
+    /**
+     * Joinable games at some version of the lobby.
+     *
+     * @param version Version of the lobby.
+     * @param games   The games.
+     * @param json    JSON array of the games.
+     * @param binary  Number of the games followed by the games in the binary protocol.
+     */
+    public record Snapshot(long version, @NotNull List<Game> games, @NotNull String json, @NotNull byte[] binary) {
+    }
+}
@@ -0,0 +1,105 @@
+package tech.kucharski.makao.game;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.server.Topic;
+import tech.kucharski.makao.server.messages.GameListChangedMessage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static tech.kucharski.makao.util.Logger.error;
+
+/**
+ * Collects the games changed in the lobby and publishes them together, see {@link GameListChangedMessage}. The first
+ * change schedules a flush after the window, the changes until then are sent in the same message, so a game is sent at
+ * most once per window however often it changes.
+ */
+public class LobbyUpdates {
+    @NotNull
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Lobby").setDaemon(true).build());
+    @NotNull
+    private final LobbyIndex lobby;
+    @NotNull
+    private final Consumer<GameListChangedMessage> publisher;
+    private final long windowMillis;
+    /**
+     * IDs of the games changed since the last flush, guarded by this.
+     */
+    @NotNull
+    private Set<UUID> changed = new LinkedHashSet<>();
+    private boolean scheduled = false;
+
+    /**
+     * Creates a collector publishing the changes to {@link Topic#LOBBY}.
+     *
+     * @param lobby        Lobby the entries are read from.
+     * @param windowMillis Window in milliseconds over which the changes are collected.
+     */
+    public LobbyUpdates(@NotNull LobbyIndex lobby, long windowMillis) {
+        this(lobby, windowMillis, message -> message.publish(Topic.LOBBY));
+    }
+
+    /**
+     * @param lobby        Lobby the entries are read from.
+     * @param windowMillis Window in milliseconds over which the changes are collected.
+     * @param publisher    Publishes the collected changes.
+     */
+    public LobbyUpdates(@NotNull LobbyIndex lobby, long windowMillis,
+                        @NotNull Consumer<GameListChangedMessage> publisher) {
+        this.lobby = lobby;
+        this.windowMillis = windowMillis;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Marks a game as changed. Its lobby entry has to be updated before.
+     *
+     * @param gameID ID of the changed game.
+     */
+    public void changed(@NotNull UUID gameID) {
+        synchronized (this) {
+            changed.add(gameID);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        executor.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes the games changed since the last flush.
+     */
+    void flush() {
+        final Set<UUID> gameIDs;
+        synchronized (this) {
+            gameIDs = changed;
+            changed = new LinkedHashSet<>();
+            scheduled = false;
+        }
+        if (gameIDs.isEmpty()) return;
+        try {
+            final List<LobbyIndex.Entry> games = new ArrayList<>();
+            final List<UUID> removed = new ArrayList<>();
+            for (UUID gameID : gameIDs) {
+                //The entry is read now, so the latest state of the game is sent
+                final LobbyIndex.Entry entry = lobby.get(gameID);
+                if (entry != null)
+                    games.add(entry);
+                else
+                    removed.add(gameID);
+            }
+            publisher.accept(new GameListChangedMessage(games, removed));
+        } catch (RuntimeException e) {
+            error("[LobbyUpdates] Exception while publishing lobby updates");
+            error(e);
+        }
+    }
+}
@@ -1,25 +1,44 @@
 package tech.kucharski.makao.game;
 
 import com.google.gson.JsonObject;
-import tech.kucharski.makao.Makao;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tech.kucharski.makao.game.deck.Deck;
 import tech.kucharski.makao.server.Client;
+import tech.kucharski.makao.util.BinaryConvertible;
+import tech.kucharski.makao.util.BinaryWriter;
 import tech.kucharski.makao.util.JSONConvertible;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
- * A player of the game
+ * A player of the game. The client of the player is looked up once, when the player joins the game, a reconnecting
+ * client keeps its object, so the reference stays valid until the client is removed.
  */
-public class Player implements JSONConvertible {
+public class Player implements JSONConvertible, BinaryConvertible {
+    @Nullable
+    private final Client client;
+    @NotNull
+    private final UUID clientID;
+    @Nullable
+    private final Game game;
     private final UUID uuid;
+    /**
+     * Index of the player in the turn order of the game.
+     */
+    private int seat = 0;
 
     /**
-     * @param uuid ID of the player
+     * @param uuid     ID of the player
+     * @param clientID ID of the client of the player
+     * @param client   Client of the player or null if not found
+     * @param game     Game of the player
      */
-    public Player(UUID uuid) {
+    public Player(UUID uuid, @NotNull UUID clientID, @Nullable Client client, @Nullable Game game) {
         this.uuid = uuid;
+        this.clientID = clientID;
+        this.client = client;
+        this.game = game;
     }
 
     /**
@@ -29,6 +48,28 @@ public class Player implements JSONConvertible {
         return uuid;
     }
 
+    /**
+     * @return ID of the client of the player
+     */
+    @NotNull
+    public UUID getClientID() {
+        return clientID;
+    }
+
+    /**
+     * @return Index of the player in the turn order of the game.
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * @param seat Index of the player in the turn order of the game.
+     */
+    void setSeat(int seat) {
+        this.seat = seat;
+    }
+
     /**
      * @return JSON representation of the object.
      */
@@ -37,23 +78,42 @@ public class Player implements JSONConvertible {
         JsonObject obj = new JsonObject();
 
         obj.addProperty("uuid", uuid.toString());
-        final Game game = Makao.getInstance().getGameManager().getGameByPlayerID(uuid);
-        if (game != null) {
-            final Deck deck = game.getDeck();
-            if (deck != null) {
-                final List<UUID> cards = deck.getPlayerCardUUIDs(uuid);
-                obj.addProperty("cardsRemaining", cards.size());
-            } else {
-                obj.addProperty("cardsRemaining", 0);
-            }
-        } else {
-            obj.addProperty("cardsRemaining", 0);
-        }
+        obj.addProperty("cardsRemaining", getCardsRemaining());
 
-        final Client client = Makao.getInstance().getServer().getClient(Makao.getInstance().getGameManager().getClientID(uuid));
+        final Client client = getClient();
         obj.addProperty("avatar", client != null ? client.getAvatar().toString() : null);
         obj.addProperty("name", client != null ? client.getName() : "");
 
         return obj;
     }
+
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeUUID(uuid);
+        out.writeShort(getCardsRemaining());
+
+        final Client client = getClient();
+        out.writeUUID(client != null ? client.getAvatar() : null);
+        out.writeString(client != null ? client.getName() : "");
+    }
+
+    /**
+     * @return Number of cards in the hand of the player.
+     */
+    public int getCardsRemaining() {
+        if (game != null) {
+            final Deck deck = game.getDeck();
+            if (deck != null)
+                return deck.getHandSize(uuid);
+        }
+        return 0;
+    }
+
+    /**
+     * @return Client of the player or null if not found.
+     */
+    @Nullable
+    public Client getClient() {
+        return client;
+    }
 }
@@ -2,23 +2,29 @@ package tech.kucharski.makao.game;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 /**
- * Turn manager
+ * Turn manager. The current turn holder is a seat, an index into the players of the game in the order of their seats,
+ * see {@link Player#getSeat()}. The players are not copied, the list of the game is read.
  */
 public class TurnManager {
-    private final List<UUID> players = Collections.synchronizedList(new ArrayList<>());
-    private UUID turnOf = null;
+    /**
+     * Players of the game in the order of their seats.
+     */
+    @NotNull
+    private final List<Player> players;
+    /**
+     * Seat of the current turn holder, -1 before the first turn.
+     */
+    private int turn = -1;
 
     /**
-     * @param uuid ID of the player
+     * @param players Players of the game in the order of their seats, changed by the game.
      */
-    public void addPlayer(UUID uuid) {
-        players.add(uuid);
+    public TurnManager(@NotNull List<Player> players) {
+        this.players = players;
     }
 
     /**
@@ -26,8 +32,8 @@ public class TurnManager {
      */
     @NotNull
     public UUID getCurrentPlayer() {
-        if (turnOf == null) nextTurn();
-        return turnOf;
+        if (turn < 0) nextTurn();
+        return players.get(turn).getUUID();
     }
 
     /**
@@ -39,15 +45,15 @@ public class TurnManager {
     @NotNull
     public UUID getNextPlayer() {
         nextTurn();
-        return turnOf;
+        return players.get(turn).getUUID();
     }
 
     /**
      * Updates the player
      */
     public void nextTurn() {
-        if (turnOf == null) {
-            turnOf = players.get((int) (Math.random() * players.size()));
+        if (turn < 0) {
+            turn = (int) (Math.random() * players.size());
         } else {
             setRandom();
         }
@@ -57,20 +63,25 @@ public class TurnManager {
      * Sets the random player.
      */
     public void setRandom() {
-        turnOf = players.get((players.indexOf(turnOf) + 1) % players.size());
+        turn = (turn + 1) % players.size();
     }
 
     /**
-     * @param uuid ID to remove
+     * Has to be called after the player at the seat was removed from the players, the turn of a removed turn holder
+     * passes to the player who took the seat.
+     *
+     * @param seat Seat of the removed player.
+     * @return Whether the removed player was the turn holder.
      */
-    @SuppressWarnings("unused")
-    public void removePlayer(UUID uuid) {
-        if (turnOf != null && turnOf.equals(uuid)) {
-            nextTurn();
-        }
-        players.remove(uuid);
-        if (turnOf != null && turnOf.equals(uuid)) {
-            turnOf = null;
-        }
+    public boolean removeSeat(int seat) {
+        if (turn < 0) return false;
+        final boolean holder = seat == turn;
+        if (players.isEmpty())
+            turn = -1;
+        else if (seat < turn)
+            turn--;
+        else if (turn >= players.size())
+            turn = 0;
+        return holder;
     }
 }
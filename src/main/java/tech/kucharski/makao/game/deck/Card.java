@@ -3,22 +3,44 @@ package tech.kucharski.makao.game.deck;
 import com.google.gson.JsonObject;
 import tech.kucharski.makao.util.JSONConvertible;
 
+import java.util.Objects;
 import java.util.UUID;
 
 /**
- * Card
+ * Card. Decks do not store their cards, a card is created when it is requested, so cards are compared by their UUIDs
+ * and indices, not by identity.
  */
 public class Card implements JSONConvertible {
+    private final int index;
     private final CardType type;
     private final UUID uuid;
 
     /**
+     * Creates a card that is not a part of any deck.
+     *
      * @param uuid Card UUID
      * @param type Card type
      */
     public Card(UUID uuid, CardType type) {
+        this(uuid, type, -1);
+    }
+
+    /**
+     * @param uuid  Card UUID
+     * @param type  Card type
+     * @param index Index of the card in its deck
+     */
+    public Card(UUID uuid, CardType type, int index) {
         this.uuid = uuid;
         this.type = type;
+        this.index = index;
+    }
+
+    /**
+     * @return Index of the card in its deck, used instead of the UUID in the binary protocol.
+     */
+    public int getIndex() {
+        return index;
     }
 
     /**
@@ -47,4 +69,14 @@ public class Card implements JSONConvertible {
         return uuid;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Card card && index == card.index && type == card.type && Objects.equals(uuid, card.uuid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(uuid);
+    }
+
 }
@@ -0,0 +1,19 @@
+package tech.kucharski.makao.game.deck;
+
+/**
+ * Where a card of a deck is.
+ */
+public enum CardLocation {
+    /**
+     * In the pile cards are drawn from.
+     */
+    REMAINING,
+    /**
+     * In the pile of played cards.
+     */
+    DISCARDED,
+    /**
+     * In the hand of a player.
+     */
+    HAND
+}
@@ -0,0 +1,92 @@
+package tech.kucharski.makao.game.deck;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+
+/**
+ * A pile of cards of a deck, stored as the unsigned short indices of the cards in an array sized for the whole deck.
+ * The top of the pile is the end of the array, so cards are put and taken in constant time. The pile is not thread
+ * safe, it is guarded by its deck.
+ */
+final class CardPile {
+    private final short[] cards;
+    private int size = 0;
+
+    /**
+     * @param capacity Number of cards of the deck.
+     */
+    CardPile(int capacity) {
+        cards = new short[capacity];
+    }
+
+    /**
+     * @param index Index of the card put on top of the pile.
+     */
+    void push(int index) {
+        cards[size++] = (short) index;
+    }
+
+    /**
+     * @return Index of the card taken from the top of the pile.
+     * @throws IllegalStateException When the pile is empty.
+     */
+    int pop() throws IllegalStateException {
+        if (size == 0)
+            throw new IllegalStateException("The pile is empty.");
+        return cards[--size] & 0xFFFF;
+    }
+
+    /**
+     * @return Index of the card on top of the pile.
+     * @throws IllegalStateException When the pile is empty.
+     */
+    int peek() throws IllegalStateException {
+        if (size == 0)
+            throw new IllegalStateException("The pile is empty.");
+        return cards[size - 1] & 0xFFFF;
+    }
+
+    /**
+     * @param position Position in the pile, 0 is the bottom.
+     * @return Index of the card at the position.
+     */
+    int get(int position) {
+        return cards[position] & 0xFFFF;
+    }
+
+    /**
+     * Moves all cards except the top one onto another pile, keeping their order.
+     *
+     * @param to Pile the cards are put on.
+     */
+    void moveAllButTopTo(@NotNull CardPile to) {
+        if (size < 2) return;
+        final int moved = size - 1;
+        System.arraycopy(cards, 0, to.cards, to.size, moved);
+        to.size += moved;
+        cards[0] = cards[moved];
+        size = 1;
+    }
+
+    /**
+     * Shuffles the pile in place.
+     *
+     * @param random Source of randomness.
+     */
+    void shuffle(@NotNull Random random) {
+        for (int i = size - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final short card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+    }
+
+    /**
+     * @return Number of cards in the pile.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -5,19 +5,62 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import tech.kucharski.makao.game.validators.CardMask;
+import tech.kucharski.makao.util.BinaryConvertible;
+import tech.kucharski.makao.util.BinaryWriter;
 import tech.kucharski.makao.util.JSONConvertible;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Deck of cards
+ * Deck of cards, stored compactly as card indices. The card at an index has the type of the ordinal of the index
+ * modulo the number of types, the copies of a type are one deck of cards apart. The UUID of a card is derived from the
+ * UUID of the deck and the index of the card, so neither cards nor UUIDs are stored, {@link Card}s are created when
+ * they are requested.
+ * <p>
+ * The location of every card is a byte and the UUID of the player holding it is stored in a {@code UUID[]} by the
+ * index of the card, the draw and discard piles are {@link CardPile}s of card indices and the hands of the players are
+ * bitsets of card indices, so a hand lists its cards in the order of their indices. Reading the hand of a player does not create it. The state is guarded by the deck.
  */
-public class Deck implements JSONConvertible {
+public class Deck implements JSONConvertible, BinaryConvertible {
+    /**
+     * Maximum number of cards, the binary protocol writes card indices as shorts.
+     */
+    private static final int MAX_CARDS = 0xFFFF;
+    private static final CardLocation[] LOCATIONS = CardLocation.values();
+    private static final CardType[] TYPES = CardType.values();
+    private static final CardValue[] VALUES = CardValue.values();
+    /**
+     * Hand of a player without cards.
+     */
+    private static final long[] NO_CARDS = new long[0];
+
+    static {
+        if (TYPES.length != Long.SIZE)
+            throw new IllegalStateException("The words of a hand do not line up with the card type masks.");
+    }
+
     private final Map<CardType, CardSettings> cardSettings;
-    private final List<Card> cards = Collections.synchronizedList(new ArrayList<>());
-    private final List<UUID> discardedCards = Collections.synchronizedList(new ArrayList<>());
-    private final Map<UUID, List<UUID>> playersCards = Collections.synchronizedMap(new HashMap<>());
-    private final List<UUID> remainingCards = Collections.synchronizedList(new ArrayList<>());
+    private final CardPile discardedCards;
+    /**
+     * Hands of the players, bitsets of card indices.
+     */
+    private final Map<UUID, long[]> hands = new HashMap<>();
+    /**
+     * Player holding each card by the index of the card, null for cards that are not in a hand.
+     */
+    private final UUID[] holders;
+    /**
+     * Ordinal of the {@link CardLocation} of each card by the index of the card.
+     */
+    private final byte[] locations;
+    /**
+     * UUID of the deck, the low 16 bits of its least significant bits are zero.
+     */
+    private final long mostSigBits, leastSigBits;
+    private final CardPile remainingCards;
+    private final int size;
 
     /**
      * @param numberOfDecks Number of decks of cards to use
@@ -26,35 +69,90 @@ public class Deck implements JSONConvertible {
     public Deck(int numberOfDecks, Map<CardType, CardSettings> cardSettings) {
         this.cardSettings = cardSettings;
         if (numberOfDecks < 1) numberOfDecks = 1;
-
-        for (int i = 0; i < numberOfDecks; i++) {
-            for (CardType type : CardType.values())
-                cards.add(new Card(uniqueUUID(), type));
-        }
+        numberOfDecks = Math.min(numberOfDecks, MAX_CARDS / TYPES.length);
+
+        final UUID uuid = randomUUID();
+        mostSigBits = uuid.getMostSignificantBits();
+        leastSigBits = uuid.getLeastSignificantBits() & ~0xFFFFL;
+        size = numberOfDecks * TYPES.length;
+        locations = new byte[size];
+        holders = new UUID[size];
+        Arrays.fill(locations, (byte) CardLocation.REMAINING.ordinal());
+        remainingCards = new CardPile(size);
+        discardedCards = new CardPile(size);
 
         //Add all cards to unused stack
-        for (Card card : cards)
-            remainingCards.add(card.getUUID());
+        for (int i = 0; i < size; i++)
+            remainingCards.push(i);
 
         //Shuffle cards
-        Collections.shuffle(remainingCards);
+        remainingCards.shuffle(ThreadLocalRandom.current());
 
-        discardedCards.add(remainingCards.remove(0));
-        while (!getCardSettings(Objects.requireNonNull(getCardByUUID(discardedCards.get(discardedCards.size() - 1)))
-                .getType()).canBeStartCard()) {
-            discardedCards.add(remainingCards.remove(0));
+        discard(remainingCards.pop());
+        while (!getCardSettings(getType(discardedCards.peek())).canBeStartCard()) {
+            discard(remainingCards.pop());
         }
     }
 
     /**
-     * @return Random unique UUID
+     * The UUIDs of the cards are sent to all players together with their types, so they do not need to be
+     * unpredictable, and are generated without the secure random number generator of {@link UUID#randomUUID()}.
+     *
+     * @return Random version 4 UUID
+     */
+    @NotNull
+    private static UUID randomUUID() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;
+        final long leastSigBits = random.nextLong() & ~(0xC000L << 48) | 0x8000L << 48;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @param index Index of a card
+     * @return Type of the card
+     */
+    @NotNull
+    private static CardType getType(int index) {
+        return TYPES[index % TYPES.length];
+    }
+
+    /**
+     * @param index Index of a card
+     * @return UUID of the card
      */
     @NotNull
-    private UUID uniqueUUID() {
-        UUID uuid = UUID.randomUUID();
-        while (getCardByUUID(uuid) != null)
-            uuid = UUID.randomUUID();
-        return uuid;
+    private UUID getUUID(int index) {
+        return new UUID(mostSigBits, leastSigBits | index);
+    }
+
+    /**
+     * @param uuid Card UUID
+     * @return Index of the card or -1 if the card is not a card of this deck
+     */
+    private int indexOf(@NotNull UUID uuid) {
+        if (uuid.getMostSignificantBits() != mostSigBits || (uuid.getLeastSignificantBits() & ~0xFFFFL) != leastSigBits)
+            return -1;
+        final int index = (int) (uuid.getLeastSignificantBits() & 0xFFFF);
+        return index < size ? index : -1;
+    }
+
+    /**
+     * @param card A card
+     * @return Whether the card is a card of this deck
+     */
+    private boolean contains(@NotNull Card card) {
+        return card.getIndex() >= 0 && indexOf(card.getUUID()) == card.getIndex();
+    }
+
+    /**
+     * Puts a card, that is not in a hand, on the discard pile.
+     *
+     * @param index Index of the card
+     */
+    private void discard(int index) {
+        locations[index] = (byte) CardLocation.DISCARDED.ordinal();
+        discardedCards.push(index);
     }
 
     /**
@@ -63,11 +161,17 @@ public class Deck implements JSONConvertible {
      */
     @Nullable
     public Card getCardByUUID(@NotNull UUID uuid) {
-        //TODO Add cache
-        for (Card card : cards)
-            if (card.getUUID().equals(uuid))
-                return card;
-        return null;
+        final int index = indexOf(uuid);
+        return index < 0 ? null : new Card(uuid, getType(index), index);
+    }
+
+    /**
+     * @param index Index of the card in the deck
+     * @return Card or null if the index is out of range
+     */
+    @Nullable
+    public Card getCard(int index) {
+        return index >= 0 && index < size ? new Card(getUUID(index), getType(index), index) : null;
     }
 
     /**
@@ -84,67 +188,95 @@ public class Deck implements JSONConvertible {
     @SuppressWarnings("unused")
     @NotNull
     public Card[] getCards() {
-        return cards.toArray(new Card[0]);
+        final Card[] cards = new Card[size];
+        for (int i = 0; i < size; i++)
+            cards[i] = new Card(getUUID(i), getType(i), i);
+        return cards;
     }
 
     /**
      * @return Current top card
      */
     @NotNull
-    public Card getCurrentTopCard() {
-        return Objects.requireNonNull(getCardByUUID(discardedCards.get(discardedCards.size() - 1)));
+    public synchronized Card getCurrentTopCard() {
+        return Objects.requireNonNull(getCard(discardedCards.peek()));
     }
 
     /**
      * @param uuid     Player UUID
      * @param numCards Number of cards to give
      */
-    public void givePlayerCards(@NotNull UUID uuid, int numCards) {
-        checkPlayerExists(uuid);
-        final List<UUID> playerCards = playersCards.get(uuid);
+    public synchronized void givePlayerCards(@NotNull UUID uuid, int numCards) {
+        final long[] hand = hands.computeIfAbsent(uuid, player -> new long[(size + 63) >>> 6]);
         for (int i = 0; i < numCards; i++) {
             if (remainingCards.size() == 0)
                 shuffleUsed();
             if (remainingCards.size() == 0)
                 continue;
-            playerCards.add(remainingCards.remove(0));
+            final int index = remainingCards.pop();
+            locations[index] = (byte) CardLocation.HAND.ordinal();
+            holders[index] = uuid;
+            hand[index >>> 6] |= 1L << index;
         }
     }
 
     /**
      * @param uuid Player UUID
+     * @return Hand of the player, empty if the player has none, it must not be changed
      */
-    private void checkPlayerExists(@NotNull UUID uuid) {
-        if (!playersCards.containsKey(uuid)) {
-            playersCards.put(uuid, Collections.synchronizedList(new ArrayList<>()));
-        }
+    @NotNull
+    private long[] getHand(@NotNull UUID uuid) {
+        return hands.getOrDefault(uuid, NO_CARDS);
     }
 
     /**
-     * Re-shuffles used cards and puts them into unused stack.
+     * Re-shuffles used cards, except the top one, and puts them into unused stack.
      */
     private void shuffleUsed() {
         if (discardedCards.size() < 2)
             return;
-        ArrayList<UUID> toAdd = new ArrayList<>();
-        while (discardedCards.size() > 1)
-            toAdd.add(discardedCards.remove(0));
-        Collections.shuffle(toAdd);
-        remainingCards.addAll(toAdd);
+        final int from = remainingCards.size();
+        discardedCards.moveAllButTopTo(remainingCards);
+        for (int i = from; i < remainingCards.size(); i++)
+            locations[remainingCards.get(i)] = (byte) CardLocation.REMAINING.ordinal();
+        remainingCards.shuffle(ThreadLocalRandom.current());
     }
 
     /**
-     * Plays a card.
+     * Plays a card from the hand holding it. A card that is not in a hand is ignored.
      *
      * @param card Card to be played
      */
-    public void playCard(@NotNull Card card) {
-        if (!cards.contains(card))
+    public synchronized void playCard(@NotNull Card card) {
+        if (!contains(card))
             return;
-        for (List<UUID> value : playersCards.values()) {
-            value.remove(card.getUUID());
-        }
-        discardedCards.add(card.getUUID());
+        final int index = card.getIndex();
+        if (locations[index] != CardLocation.HAND.ordinal())
+            return;
+        hands.get(holders[index])[index >>> 6] &= ~(1L << index);
+        holders[index] = null;
+        discard(index);
+    }
+
+    /**
+     * @param player Player UUID
+     * @param card   A card
+     * @return Whether the card of this deck is in the hand of the player
+     */
+    public synchronized boolean isHeldBy(@NotNull UUID player, @NotNull Card card) {
+        return contains(card) && player.equals(holders[card.getIndex()]);
+    }
+
+    /**
+     * @param card A card of this deck
+     * @return Where the card is
+     * @throws IllegalArgumentException If the card is not a card of this deck.
+     */
+    @NotNull
+    public synchronized CardLocation getLocation(@NotNull Card card) throws IllegalArgumentException {
+        if (!contains(card))
+            throw new IllegalArgumentException("Card " + card.getUUID() + " is not a card of this deck.");
+        return LOCATIONS[locations[card.getIndex()]];
     }
 
     /**
@@ -163,31 +295,97 @@ public class Deck implements JSONConvertible {
 
     /**
      * @param uuid UUID of the player.
-     * @return Cards of the player.
+     * @return Cards of the player in the order of their indices.
      */
     @NotNull
-    private List<Card> getPlayerCards(@NotNull UUID uuid) {
-        checkPlayerExists(uuid);
-        final List<UUID> playerCardsIDs = getPlayerCardUUIDs(uuid);
+    private synchronized List<Card> getPlayerCards(@NotNull UUID uuid) {
+        final long[] hand = getHand(uuid);
         final List<Card> playerCards = new ArrayList<>();
-        for (UUID cardUUID : playerCardsIDs) {
-            final Card card = getCardByUUID(cardUUID);
-            if (card != null) {
-                playerCards.add(card);
-            }
-        }
+        for (int index = nextCard(hand, 0); index >= 0; index = nextCard(hand, index + 1))
+            playerCards.add(new Card(getUUID(index), getType(index), index));
         return playerCards;
     }
 
+    /**
+     * @param hand A hand
+     * @param from First index to check
+     * @return Index of the first card of the hand at or after the index, -1 if there is none
+     */
+    private static int nextCard(@NotNull long[] hand, int from) {
+        int word = from >>> 6;
+        if (word >= hand.length) return -1;
+        long bits = hand[word] & -1L << from;
+        while (bits == 0) {
+            if (++word == hand.length) return -1;
+            bits = hand[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
     /**
      * @param uuid Player UUID
-     * @return Player cards
+     * @return Player cards in the order of their indices
+     */
+    @NotNull
+    public synchronized List<UUID> getPlayerCardUUIDs(@NotNull UUID uuid) {
+        final long[] hand = getHand(uuid);
+        final List<UUID> playerCards = new ArrayList<>();
+        for (int index = nextCard(hand, 0); index >= 0; index = nextCard(hand, index + 1))
+            playerCards.add(getUUID(index));
+        return playerCards;
+    }
+
+    /**
+     * There are 64 card types, so bit {@code n} of a word of a hand has the type with the ordinal {@code n} and the
+     * cards of a hand of some types are the words masked with a {@link CardMask}.
+     *
+     * @param uuid  Player UUID
+     * @param types Mask of the card types that can start a play, see {@link CardMask}
+     * @return Cards the player can play
+     */
+    @NotNull
+    public synchronized PlayableCards getPlayableCards(@NotNull UUID uuid, long types) {
+        final long[] hand = getHand(uuid);
+        long held = 0;
+        for (long bits : hand)
+            held |= bits;
+        final List<List<UUID>> combinations = new ArrayList<>();
+        for (CardValue value : VALUES) {
+            final long mask = CardMask.of(value);
+            if ((held & types & mask) == 0)
+                continue;
+            final List<UUID> cards = getCardUUIDs(hand, mask);
+            if (cards.size() > 1)
+                combinations.add(cards);
+        }
+        return new PlayableCards(getCardUUIDs(hand, types), combinations);
+    }
+
+    /**
+     * @param hand  A hand
+     * @param types Mask of card types, see {@link CardMask}
+     * @return Cards of the hand of the types in the order of their indices
      */
     @NotNull
-    public List<UUID> getPlayerCardUUIDs(@NotNull UUID uuid) {
-        checkPlayerExists(uuid);
+    private List<UUID> getCardUUIDs(@NotNull long[] hand, long types) {
+        final List<UUID> cards = new ArrayList<>();
+        for (int word = 0; word < hand.length; word++)
+            for (long bits = hand[word] & types; bits != 0; bits &= bits - 1)
+                cards.add(getUUID((word << 6) + Long.numberOfTrailingZeros(bits)));
+        return cards;
+    }
 
-        return new ArrayList<>(playersCards.get(uuid));
+    /**
+     * @param uuid Player UUID
+     * @return Number of cards in the hand of the player
+     */
+    public synchronized int getHandSize(@NotNull UUID uuid) {
+        final long[] hand = hands.get(uuid);
+        if (hand == null) return 0;
+        int count = 0;
+        for (long bits : hand)
+            count += Long.bitCount(bits);
+        return count;
     }
 
     /**
@@ -222,9 +420,14 @@ public class Deck implements JSONConvertible {
     /**
      * @param playerUUID Player to be removed.
      */
-    public void removePlayer(UUID playerUUID) {
-        discardedCards.addAll(playersCards.get(playerUUID));
-        playersCards.remove(playerUUID);
+    public synchronized void removePlayer(UUID playerUUID) {
+        final long[] hand = hands.remove(playerUUID);
+        if (hand == null)
+            return;
+        for (int index = nextCard(hand, 0); index >= 0; index = nextCard(hand, index + 1)) {
+            holders[index] = null;
+            discard(index);
+        }
     }
 
     /**
@@ -234,28 +437,116 @@ public class Deck implements JSONConvertible {
     public JsonObject toJSONObject() {
         JsonObject obj = new JsonObject();
 
-        JsonArray cards = new JsonArray();
-        this.cards.forEach(card -> cards.add(card.toJSONObject()));
+        JsonArray cards = new JsonArray(size);
+        for (Card card : getCards())
+            cards.add(card.toJSONObject());
 
         obj.add("cards", cards);
 
-        JsonArray discardedCards = new JsonArray();
-        this.discardedCards.forEach(uuid -> discardedCards.add(uuid.toString()));
-
-        obj.add("discardedCards", discardedCards);
+        obj.add("discardedCards", toDiscardedJSON());
         return obj;
     }
 
     /**
-     * @return Simplified JSON data.
+     * @return UUIDs of all discarded cards from the bottom of the pile.
      */
-    public JsonElement toSimpleJSONObject() {
-        JsonObject obj = new JsonObject();
+    @NotNull
+    public synchronized JsonArray toDiscardedJSON() {
+        return getDiscardedJSON(0);
+    }
+
+    /**
+     * @param from Position in the discard pile of the first card, 0 is the bottom.
+     * @return UUIDs of the discarded cards from the position to the top of the pile.
+     */
+    @NotNull
+    private JsonArray getDiscardedJSON(int from) {
+        final JsonArray discarded = new JsonArray(discardedCards.size() - from);
+        for (int i = from; i < discardedCards.size(); i++)
+            discarded.add(getUUID(discardedCards.get(i)).toString());
+        return discarded;
+    }
+
+    /**
+     * @param topCards Maximum number of cards.
+     * @return Position in the discard pile of the lowest of the top cards.
+     */
+    private int topCardsFrom(int topCards) {
+        return Math.max(0, discardedCards.size() - Math.max(0, topCards));
+    }
+
+    /**
+     * Writes types of all cards in the order of their indices, followed by the discarded cards.
+     *
+     * @param out Writer the binary representation of the object shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeShort(size);
+        for (int i = 0; i < size; i++)
+            out.writeEnum(getType(i));
+        writeDiscardedBinary(out);
+    }
+
+    /**
+     * Binary counterpart of {@link #toSimpleJSONObject(int)}.
+     *
+     * @param out      Writer the deck shall be written to.
+     * @param topCards Maximum number of discarded cards to write.
+     */
+    public synchronized void writeSimpleBinary(@NotNull BinaryWriter out, int topCards) {
+        out.writeShort(remainingCards.size());
+        out.writeShort(discardedCards.size());
+        writeDiscarded(out, topCardsFrom(topCards));
+    }
+
+    /**
+     * Binary counterpart of {@link #toDiscardedJSON()}.
+     *
+     * @param out Writer the discarded cards shall be written to.
+     */
+    public synchronized void writeDiscardedBinary(@NotNull BinaryWriter out) {
+        writeDiscarded(out, 0);
+    }
+
+    /**
+     * @param out  Writer the discarded cards shall be written to.
+     * @param from Position in the discard pile of the first card, 0 is the bottom.
+     */
+    private void writeDiscarded(@NotNull BinaryWriter out, int from) {
+        out.writeShort(discardedCards.size() - from);
+        for (int i = from; i < discardedCards.size(); i++)
+            out.writeShort(discardedCards.get(i));
+    }
+
+    /**
+     * @param out   Writer the cards shall be written to.
+     * @param uuids UUIDs of the cards of this deck.
+     * @throws IllegalArgumentException If a UUID is not a UUID of a card of this deck.
+     */
+    public void writeCardIndices(@NotNull BinaryWriter out, @NotNull List<UUID> uuids)
+            throws IllegalArgumentException {
+        out.writeShort(uuids.size());
+        for (UUID uuid : uuids) {
+            final int index = indexOf(uuid);
+            if (index < 0)
+                throw new IllegalArgumentException("Card " + uuid + " is not a card of this deck.");
+            out.writeShort(index);
+        }
+    }
 
-        JsonArray discardedCards = new JsonArray();
-        this.discardedCards.forEach(uuid -> discardedCards.add(uuid.toString()));
+    /**
+     * The size of the simplified data does not grow with the discard pile, the whole pile is sent on request.
+     *
+     * @param topCards Maximum number of discarded cards to include.
+     * @return Simplified JSON data, the sizes of the piles and the top cards of the discard pile.
+     */
+    public synchronized JsonElement toSimpleJSONObject(int topCards) {
+        JsonObject obj = new JsonObject();
 
-        obj.add("discardedCards", discardedCards);
+        obj.addProperty("unusedCount", remainingCards.size());
+        obj.addProperty("usedCount", discardedCards.size());
+        obj.add("discardedCards", getDiscardedJSON(topCardsFrom(topCards)));
         return obj;
     }
 
@@ -263,7 +554,7 @@ public class Deck implements JSONConvertible {
      * @return Number of cards in unused pile
      */
     @SuppressWarnings("unused")
-    public int unusedCount() {
+    public synchronized int unusedCount() {
         return remainingCards.size();
     }
 
@@ -271,7 +562,7 @@ public class Deck implements JSONConvertible {
      * @return Number of cards in used pile
      */
     @SuppressWarnings("unused")
-    public int usedCount() {
+    public synchronized int usedCount() {
         return discardedCards.size();
     }
 }
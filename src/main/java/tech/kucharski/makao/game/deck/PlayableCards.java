@@ -0,0 +1,17 @@
+package tech.kucharski.makao.game.deck;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cards a player can play in a turn. A play starts with one of the playable cards, any other cards of the same
+ * {@link CardValue} may follow it.
+ *
+ * @param cards        Cards that can start a play, in the order of their indices.
+ * @param combinations For every value with a playable card and more than one card in the hand, all cards of the hand
+ *                     of that value, in the order of their indices.
+ */
+public record PlayableCards(@NotNull List<UUID> cards, @NotNull List<List<UUID>> combinations) {
+}
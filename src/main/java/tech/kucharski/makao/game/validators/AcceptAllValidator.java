@@ -17,4 +17,9 @@ public class AcceptAllValidator implements CardValidator {
     public boolean validate(@NotNull Card card) {
         return true;
     }
+
+    @Override
+    public long toMask() {
+        return CardMask.ALL;
+    }
 }
@@ -0,0 +1,89 @@
+package tech.kucharski.makao.game.validators;
+
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.game.deck.Card;
+import tech.kucharski.makao.game.deck.CardColor;
+import tech.kucharski.makao.game.deck.CardType;
+import tech.kucharski.makao.game.deck.CardValue;
+
+import java.util.UUID;
+
+/**
+ * Sets of card types as 64-bit masks, bit {@code n} stands for the card type with the ordinal {@code n}. A validator
+ * compiled to a mask, see {@link CardValidator#toMask()}, checks a card with a single AND.
+ */
+public final class CardMask {
+    private static final CardType[] TYPES = CardType.values();
+    /**
+     * All card types.
+     */
+    public static final long ALL;
+    private static final long[] COLORS = new long[CardColor.values().length];
+    private static final long[] VALUES = new long[CardValue.values().length];
+
+    static {
+        if (TYPES.length > Long.SIZE)
+            throw new IllegalStateException("Card types do not fit in a mask.");
+        long all = 0;
+        for (CardType type : TYPES) {
+            all |= of(type);
+            COLORS[type.getColor().ordinal()] |= of(type);
+            VALUES[type.getValue().ordinal()] |= of(type);
+        }
+        ALL = all;
+    }
+
+    /**
+     * Utility class
+     */
+    private CardMask() {
+    }
+
+    /**
+     * @param type A card type.
+     * @return Mask of the card type.
+     */
+    public static long of(@NotNull CardType type) {
+        return 1L << type.ordinal();
+    }
+
+    /**
+     * @param color A card color.
+     * @return Mask of the card types of the color.
+     */
+    public static long of(@NotNull CardColor color) {
+        return COLORS[color.ordinal()];
+    }
+
+    /**
+     * @param value A card value.
+     * @return Mask of the card types of the value.
+     */
+    public static long of(@NotNull CardValue value) {
+        return VALUES[value.ordinal()];
+    }
+
+    /**
+     * Compiles a validator by validating a card of every type. The validator may only depend on the type of the card.
+     *
+     * @param validator A validator.
+     * @return Mask of the card types the validator accepts.
+     */
+    public static long of(@NotNull CardValidator validator) {
+        final UUID uuid = new UUID(0, 0);
+        long mask = 0;
+        for (CardType type : TYPES)
+            if (validator.validate(new Card(uuid, type)))
+                mask |= of(type);
+        return mask;
+    }
+
+    /**
+     * @param mask A mask.
+     * @param type A card type.
+     * @return Whether the mask contains the card type.
+     */
+    public static boolean contains(long mask, @NotNull CardType type) {
+        return (mask & of(type)) != 0;
+    }
+}
@@ -11,4 +11,14 @@ public interface CardValidator {
      * @return Whether the card can be placed on top of the current card.
      */
     boolean validate(Card card);
+
+    /**
+     * Compiles the validator to a mask of card types, see {@link CardMask}. The default implementation validates a card
+     * of every type, validators compiled to masks may only depend on the type of the card.
+     *
+     * @return Mask of the card types that can be placed on top of the current card.
+     */
+    default long toMask() {
+        return CardMask.of(this);
+    }
 }
@@ -25,4 +25,12 @@ public class CombinedValidator implements CardValidator {
                 return false;
         return true;
     }
+
+    @Override
+    public long toMask() {
+        long mask = CardMask.ALL;
+        for (CardValidator validator : validators)
+            mask &= validator.toMask();
+        return mask;
+    }
 }
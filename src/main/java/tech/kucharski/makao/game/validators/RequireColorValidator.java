@@ -22,4 +22,9 @@ public class RequireColorValidator implements CardValidator {
     public boolean validate(@NotNull Card card) {
         return required == card.getType().getColor();
     }
+
+    @Override
+    public long toMask() {
+        return CardMask.of(required);
+    }
 }
@@ -22,4 +22,9 @@ public class RequireValueValidator implements CardValidator {
     public boolean validate(@NotNull Card card) {
         return required == card.getType().getValue();
     }
+
+    @Override
+    public long toMask() {
+        return CardMask.of(required);
+    }
 }
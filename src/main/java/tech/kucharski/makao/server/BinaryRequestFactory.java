@@ -0,0 +1,25 @@
+package tech.kucharski.makao.server;
+
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.util.BinaryReader;
+
+import java.nio.BufferUnderflowException;
+import java.util.UUID;
+
+/**
+ * Creates a request from its binary data.
+ */
+@FunctionalInterface
+public interface BinaryRequestFactory {
+    /**
+     * @param reqID Request ID.
+     * @param in    Request data following the request ID.
+     * @return A new request.
+     * @throws InvalidRequestException  When request data is invalid.
+     * @throws BufferUnderflowException When request data is too short.
+     * @throws IllegalArgumentException When request data contains an invalid value.
+     */
+    @NotNull
+    Request create(@NotNull UUID reqID, @NotNull BinaryReader in) throws InvalidRequestException,
+            BufferUnderflowException, IllegalArgumentException;
+}
@@ -3,9 +3,16 @@ package tech.kucharski.makao.server;
 import net.datafaker.Faker;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static tech.kucharski.makao.util.Logger.log;
 
@@ -13,35 +20,77 @@ import static tech.kucharski.makao.util.Logger.log;
  * A network client.
  */
 public class Client {
-    private static final long TIMEOUT_MS = 10_000;
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
     private final Object lock = new Object();
+    @NotNull
+    private final OutboundQueue outboundQueue;
+    /**
+     * Whether the client is scheduled in the liveness wheel of the server.
+     */
+    private final AtomicBoolean tracked = new AtomicBoolean(false);
+    /**
+     * Topics the client is subscribed to, guarded by the client.
+     */
+    private final Set<Topic> topics = EnumSet.allOf(Topic.class);
     private final UUID uuid;
     @NotNull
     private UUID avatar;
-    private ClientState clientState = ClientState.DISCONNECTED;
-    private Date lastHeartbeat = new Date();
-    private int messageID = 0;
+    private volatile ClientState clientState = ClientState.DISCONNECTED;
+    /**
+     * Requests received from the socket of the client, null if they are handled inline.
+     */
+    @Nullable
+    private volatile InboundQueue inboundQueue = null;
+    /**
+     * When last heartbeat was received, see {@link System#nanoTime()}.
+     */
+    private volatile long lastHeartbeat = System.nanoTime();
+    /**
+     * Next message index, taken by the threads sending the messages of the client.
+     */
+    private final AtomicInteger messageID = new AtomicInteger();
     @NotNull
     private String name;
-    private WebSocket socket = null;
+    private volatile WebSocket socket = null;
+    /**
+     * Called when the state or the subscriptions of the client change.
+     */
+    @Nullable
+    private Consumer<Client> stateListener = null;
 
     /**
+     * Creates a client with the default settings, its messages are sent on the thread queueing them.
+     *
      * @param uuid Client UUID
      */
     public Client(@NotNull UUID uuid) {
+        this(uuid, Runnable::run, new ServerSettings());
+    }
+
+    /**
+     * @param uuid     Client UUID
+     * @param executor Executor sending the messages of the client.
+     * @param settings Settings of the server.
+     */
+    public Client(@NotNull UUID uuid, @NotNull Executor executor, @NotNull ServerSettings settings) {
         this.uuid = uuid;
+        outboundQueue = new OutboundQueue(this, executor, settings.getOutboundCapacity(),
+                settings.getOutboundHighWaterMark(), settings.getSlowClientTimeout());
         avatar = UUID.randomUUID();
         name = new Faker().funnyName().name();
     }
 
     /**
-     * Checks if the timeout has passed.
+     * Checks if the timeout has passed or the client is too slow to receive its messages.
+     *
+     * @param nowNanos Current time, see {@link System#nanoTime()}.
      */
-    public void checkTimeout() {
+    public void checkTimeout(long nowNanos) {
+        outboundQueue.checkSlow();
         if (clientState == ClientState.CONNECTED) {
-            if (new Date().getTime() - lastHeartbeat.getTime() > TIMEOUT_MS) {
+            if (nowNanos - lastHeartbeat > TIMEOUT_NANOS) {
                 log("[Client] Client timed out.");
-                clientState = ClientState.DISCONNECTED;
+                setClientState(ClientState.DISCONNECTED);
                 if (socket != null) {
                     socket.close();
                     socket = null;
@@ -73,9 +122,24 @@ public class Client {
     }
 
     /**
-     * @return When last heartbeat was received.
+     * @return Requests received from the socket of the client or null if they are handled inline.
+     */
+    @Nullable
+    public InboundQueue getInboundQueue() {
+        return inboundQueue;
+    }
+
+    /**
+     * @param inboundQueue Requests received from the socket of the client or null if they are handled inline.
      */
-    public Date getLastHeartbeat() {
+    public void setInboundQueue(@Nullable InboundQueue inboundQueue) {
+        this.inboundQueue = inboundQueue;
+    }
+
+    /**
+     * @return When last heartbeat was received, see {@link System#nanoTime()}.
+     */
+    public long getLastHeartbeat() {
         return lastHeartbeat;
     }
 
@@ -86,18 +150,26 @@ public class Client {
         return lock;
     }
 
+    /**
+     * @return Messages waiting to be sent to the client.
+     */
+    @NotNull
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
+    }
+
     /**
      * @return Next message index
      */
     public int getMessageID() {
-        return messageID++;
+        return messageID.getAndIncrement();
     }
 
     /**
      * @param messageID Next message index
      */
     public void setMessageID(int messageID) {
-        this.messageID = messageID;
+        this.messageID.set(messageID);
     }
 
     /**
@@ -128,12 +200,49 @@ public class Client {
     public void setSocket(WebSocket socket) {
         this.socket = socket;
         if (socket != null && socket.isOpen()) {
-            clientState = ClientState.CONNECTED;
+            setClientState(ClientState.CONNECTED);
         } else {
-            clientState = ClientState.DISCONNECTED;
+            setClientState(ClientState.DISCONNECTED);
         }
     }
 
+    /**
+     * @param clientState New state, the listener is notified if it differs from the current one.
+     */
+    private synchronized void setClientState(@NotNull ClientState clientState) {
+        if (this.clientState == clientState) return;
+        this.clientState = clientState;
+        if (stateListener != null)
+            stateListener.accept(this);
+    }
+
+    /**
+     * @param topic A topic.
+     * @return Whether the client is subscribed to the topic.
+     */
+    public synchronized boolean isSubscribed(@NotNull Topic topic) {
+        return topics.contains(topic);
+    }
+
+    /**
+     * @param topic      A topic.
+     * @param subscribed Whether the client shall receive the messages of the topic, the listener is notified if it
+     *                   differs from the current subscription.
+     */
+    public synchronized void setSubscribed(@NotNull Topic topic, boolean subscribed) {
+        if (!(subscribed ? topics.add(topic) : topics.remove(topic))) return;
+        if (stateListener != null)
+            stateListener.accept(this);
+    }
+
+    /**
+     * @param stateListener Called with the client when its state or its subscriptions change, while the client is
+     *                      locked, so the calls for a client are not reordered.
+     */
+    synchronized void setStateListener(@Nullable Consumer<Client> stateListener) {
+        this.stateListener = stateListener;
+    }
+
     /**
      * @return UUID of the client.
      */
@@ -145,6 +254,22 @@ public class Client {
      * This should be called when the client sends heartbeat to reset the timeout.
      */
     public void heartbeatReceived() {
-        lastHeartbeat = new Date();
+        lastHeartbeat = System.nanoTime();
+    }
+
+    /**
+     * Marks the client as scheduled in the liveness wheel of the server.
+     *
+     * @return Whether the client was not scheduled before, so it has to be scheduled now.
+     */
+    boolean startTracking() {
+        return tracked.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the client as no longer scheduled in the liveness wheel of the server.
+     */
+    void stopTracking() {
+        tracked.set(false);
     }
 }
@@ -0,0 +1,187 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Clients of the server by their UUID. The registry does not lock, iteration is weakly consistent. The client using a
+ * socket is its attachment, so it is found without a lookup.
+ * <p>
+ * The connected clients, and the connected subscribers of every {@link Topic}, are kept in separate sets, updated when
+ * a client changes its state or its subscriptions. Broadcasts iterate an immutable snapshot of a set, which is rebuilt
+ * only after the set changed.
+ */
+public class ClientRegistry {
+    private static final Client[] EMPTY = new Client[0];
+    private final ConcurrentHashMap<UUID, Client> clients = new ConcurrentHashMap<>();
+    private final Index online = new Index();
+    /**
+     * Connected subscribers by topic, all topics are added when the registry is created.
+     */
+    private final Map<Topic, Index> subscribers = new EnumMap<>(Topic.class);
+    private final Collection<Client> view = Collections.unmodifiableCollection(clients.values());
+
+    /**
+     * Creates an empty registry.
+     */
+    public ClientRegistry() {
+        for (Topic topic : Topic.values())
+            subscribers.put(topic, new Index());
+    }
+
+    /**
+     * @param socket A socket.
+     * @return Client using the socket or null if there is none.
+     */
+    @Nullable
+    public static Client get(@Nullable WebSocket socket) {
+        return socket != null && socket.getAttachment() instanceof Client client ? client : null;
+    }
+
+    /**
+     * @param clientID ID of the client to find.
+     * @return A client or null if not found.
+     */
+    @Nullable
+    public Client get(@Nullable UUID clientID) {
+        return clientID == null ? null : clients.get(clientID);
+    }
+
+    /**
+     * Creates and adds a client with a unique ID.
+     *
+     * @param factory Creates a client with the given ID.
+     * @return The client.
+     */
+    @NotNull
+    public Client register(@NotNull Function<UUID, Client> factory) {
+        while (true) {
+            final Client client = factory.apply(UUID.randomUUID());
+            if (clients.putIfAbsent(client.getUUID(), client) == null) {
+                client.setStateListener(this::onStateChanged);
+                onStateChanged(client);
+                return client;
+            }
+        }
+    }
+
+    /**
+     * @param client Client to be removed, another client with the same ID is kept.
+     */
+    public void remove(@NotNull Client client) {
+        if (clients.remove(client.getUUID(), client)) {
+            client.setStateListener(null);
+            online.update(client, false);
+            for (Index index : subscribers.values())
+                index.update(client, false);
+        }
+    }
+
+    /**
+     * @param client Client that changed its state or its subscriptions.
+     */
+    private void onStateChanged(@NotNull Client client) {
+        final boolean connected = client.getClientState() == ClientState.CONNECTED;
+        online.update(client, connected);
+        for (Map.Entry<Topic, Index> entry : subscribers.entrySet())
+            entry.getValue().update(client, connected && client.isSubscribed(entry.getKey()));
+    }
+
+    /**
+     * @return Immutable snapshot of the connected clients.
+     */
+    @NotNull
+    public List<Client> getOnlineClients() {
+        return online.getSnapshot();
+    }
+
+    /**
+     * @return Number of connected clients.
+     */
+    public int getOnlineCount() {
+        return online.size();
+    }
+
+    /**
+     * @param topic A topic.
+     * @return Immutable snapshot of the connected clients subscribed to the topic.
+     */
+    @NotNull
+    public List<Client> getSubscribers(@NotNull Topic topic) {
+        return subscribers.get(topic).getSnapshot();
+    }
+
+    /**
+     * @return Weakly consistent view of all clients.
+     */
+    @NotNull
+    public Collection<Client> getClients() {
+        return view;
+    }
+
+    /**
+     * @return Number of clients.
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * A set of clients with an immutable snapshot, rebuilt when it is requested after the set changed.
+     */
+    private static final class Index {
+        private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+        /**
+         * Incremented after every change of the set.
+         */
+        private final AtomicLong version = new AtomicLong();
+        @NotNull
+        private volatile Snapshot snapshot = new Snapshot(0, List.of());
+
+        /**
+         * @param client A client.
+         * @param member Whether the client shall be in the set.
+         */
+        private void update(@NotNull Client client, boolean member) {
+            if (member ? clients.add(client) : clients.remove(client))
+                version.incrementAndGet();
+        }
+
+        /**
+         * @return Immutable snapshot of the set.
+         */
+        @NotNull
+        private List<Client> getSnapshot() {
+            final Snapshot current = snapshot;
+            final long version = this.version.get();
+            if (current.version == version)
+                return current.clients;
+            //Tagged with the version read before copying, so a snapshot missing a concurrent change is rebuilt later
+            final List<Client> clients = Collections.unmodifiableList(Arrays.asList(this.clients.toArray(EMPTY)));
+            snapshot = new Snapshot(version, clients);
+            return clients;
+        }
+
+        /**
+         * @return Number of clients in the set.
+         */
+        private int size() {
+            return clients.size();
+        }
+    }
+
+    /**
+     * Clients at some version of a set.
+     *
+     * @param version Version of the set.
+     * @param clients The clients.
+     */
+    private record Snapshot(long version, @NotNull List<Client> clients) {
+    }
+}
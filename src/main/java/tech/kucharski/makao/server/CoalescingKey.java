@@ -0,0 +1,15 @@
+package tech.kucharski.makao.server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Identifies messages that supersede each other, see {@link Message#getCoalescingKey()}.
+ *
+ * @param type Type of the message.
+ * @param id   ID of the object the message describes, for example the game, or null if there is none.
+ */
+public record CoalescingKey(@NotNull Messages type, @Nullable UUID id) {
+}
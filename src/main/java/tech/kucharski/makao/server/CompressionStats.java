@@ -0,0 +1,87 @@
+package tech.kucharski.makao.server;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the outgoing message compression.
+ */
+public class CompressionStats {
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressedFrames = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder compressions = new LongAdder();
+    private final LongAdder skippedFrames = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+
+    /**
+     * Records that a payload was compressed.
+     *
+     * @param nanos Time spent compressing.
+     */
+    public void compressed(long nanos) {
+        compressions.increment();
+        compressionNanos.add(nanos);
+    }
+
+    /**
+     * Records that a compressed frame was sent.
+     *
+     * @param uncompressed Size of the payload before compression.
+     * @param compressed   Size of the payload after compression.
+     */
+    public void frameSent(int uncompressed, int compressed) {
+        compressedFrames.increment();
+        uncompressedBytes.add(uncompressed);
+        compressedBytes.add(compressed);
+    }
+
+    /**
+     * Records that a frame was sent uncompressed, because it was smaller than the threshold.
+     */
+    public void frameSkipped() {
+        skippedFrames.increment();
+    }
+
+    /**
+     * @return Number of compressed frames sent.
+     */
+    public long getCompressedFrames() {
+        return compressedFrames.sum();
+    }
+
+    /**
+     * @return Total time spent compressing in nanoseconds.
+     */
+    public long getCompressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    /**
+     * @return Number of times a payload was compressed. A payload shared by many frames is compressed once.
+     */
+    public long getCompressions() {
+        return compressions.sum();
+    }
+
+    /**
+     * @return Compressed size divided by uncompressed size of all compressed frames, 1 if nothing was compressed.
+     */
+    public double getRatio() {
+        final long uncompressed = uncompressedBytes.sum();
+        return uncompressed == 0 ? 1 : (double) compressedBytes.sum() / uncompressed;
+    }
+
+    /**
+     * @return Number of frames sent uncompressed, because they were smaller than the threshold.
+     */
+    public long getSkippedFrames() {
+        return skippedFrames.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d frames compressed (%d compressions, %.1f ms CPU), ratio %.3f, %d frames below threshold",
+                getCompressedFrames(), getCompressions(), getCompressionNanos() / 1_000_000d, getRatio(),
+                getSkippedFrames());
+    }
+}
@@ -0,0 +1,59 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The permessage-deflate extension that passes through frames compressed ahead of time and records
+ * {@link CompressionStats}.
+ * <p>
+ * The server never takes over the compression context between messages, so a frame compressed by
+ * {@link EncodedMessage} once can be sent to every client that negotiated the extension.
+ */
+public class DeflateExtension extends PerMessageDeflateExtension {
+    @NotNull
+    private final CompressionStats stats;
+
+    /**
+     * @param threshold Minimum size of the message in bytes to be compressed.
+     * @param stats     Statistics shared by all connections.
+     */
+    public DeflateExtension(int threshold, @NotNull CompressionStats stats) {
+        this.stats = stats;
+        setThreshold(threshold);
+        setServerNoContextTakeover(true);
+    }
+
+    @Override
+    public void encodeFrame(Framedata inputFrame) {
+        if (inputFrame instanceof PrecompressedFrame || !(inputFrame instanceof DataFrame))
+            return;
+        final int size = inputFrame.getPayloadData().remaining();
+        final long start = System.nanoTime();
+        super.encodeFrame(inputFrame);
+        if (inputFrame.isRSV1()) {
+            stats.compressed(System.nanoTime() - start);
+            stats.frameSent(size, inputFrame.getPayloadData().remaining());
+        } else {
+            stats.frameSkipped();
+        }
+    }
+
+    @Override
+    public IExtension copyInstance() {
+        final DeflateExtension clone = new DeflateExtension(getThreshold(), stats);
+        clone.setClientNoContextTakeover(isClientNoContextTakeover());
+        return clone;
+    }
+
+    /**
+     * @return Statistics shared by all connections.
+     */
+    @NotNull
+    public CompressionStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,296 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.framing.BinaryFrame;
+import org.java_websocket.framing.TextFrame;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import static tech.kucharski.makao.util.Logger.warning;
+
+/**
+ * A message serialized once, so it can be sent to many clients. Only the per-client <code>_msgID</code> is written
+ * separately for every recipient. For clients that negotiated {@link DeflateExtension} the message is also compressed
+ * only once. The message is encoded only for the {@link WireProtocol}s of its recipients.
+ */
+public final class EncodedMessage {
+    private static final byte[] MESSAGE_ID_KEY = "\"_msgID\":".getBytes(StandardCharsets.UTF_8);
+    /**
+     * Message in the binary protocol without the message ID or null if it was not encoded for binary clients.
+     */
+    @Nullable
+    private final byte[] binary;
+    /**
+     * See {@link Message#getCoalescingKey()}.
+     */
+    @Nullable
+    private final Object coalescingKey;
+    /**
+     * Whether the JSON object has no properties, so no comma may precede <code>_msgID</code>.
+     */
+    private final boolean empty;
+    /**
+     * UTF-8 encoded JSON object without the closing brace or null if it was not encoded for JSON clients.
+     */
+    @Nullable
+    private final byte[] prefix;
+    /**
+     * The prefix compressed for permessage-deflate, computed when first needed.
+     */
+    private volatile byte[] compressedPrefix = null;
+
+    /**
+     * @param json          JSON object serialized to a string or null.
+     * @param binary        Message in the binary protocol or null.
+     * @param coalescingKey Key identifying messages superseded by this one or null.
+     */
+    private EncodedMessage(@Nullable String json, @Nullable byte[] binary, @Nullable Object coalescingKey) {
+        if (json != null && (json.length() < 2 || json.charAt(json.length() - 1) != '}'))
+            throw new IllegalArgumentException("Message must be a JSON object.");
+        if (binary != null && binary.length == 0)
+            throw new IllegalArgumentException("Message must start with its type.");
+        prefix = json == null ? null : json.substring(0, json.length() - 1).getBytes(StandardCharsets.UTF_8);
+        empty = prefix != null && prefix.length == 1;
+        this.binary = binary;
+        this.coalescingKey = coalescingKey;
+    }
+
+    /**
+     * @param message Message to be encoded for JSON clients.
+     * @return The encoded message.
+     */
+    @NotNull
+    public static EncodedMessage of(@NotNull Message message) {
+        return of(message, EnumSet.of(WireProtocol.JSON));
+    }
+
+    /**
+     * @param message   Message to be encoded.
+     * @param protocols Protocols of the recipients, the message is encoded only for these.
+     * @return The encoded message.
+     */
+    @NotNull
+    public static EncodedMessage of(@NotNull Message message, @NotNull Set<WireProtocol> protocols) {
+        final String json = protocols.contains(WireProtocol.JSON) ? message.toJSONString() : null;
+        byte[] binary = null;
+        if (protocols.contains(WireProtocol.BINARY)) {
+            final BinaryWriter out = new BinaryWriter();
+            message.writeBinary(out);
+            binary = out.toByteArray();
+        }
+        return new EncodedMessage(json, binary, message.getCoalescingKey());
+    }
+
+    /**
+     * @return Key identifying messages superseded by this one or null, see {@link Message#getCoalescingKey()}.
+     */
+    @Nullable
+    public Object getCoalescingKey() {
+        return coalescingKey;
+    }
+
+    /**
+     * @param protocol A protocol.
+     * @return Whether the message was encoded for the protocol.
+     */
+    public boolean isEncodedFor(@NotNull WireProtocol protocol) {
+        return (protocol == WireProtocol.BINARY ? binary : prefix) != null;
+    }
+
+    /**
+     * @param messageID Message ID of the recipient or null if the recipient is not a client.
+     * @return Message in the binary protocol including the message ID, -1 if there is none.
+     * @throws IllegalStateException When the message was not encoded for binary clients.
+     */
+    @NotNull
+    public byte[] encodeBinary(@Nullable Integer messageID) throws IllegalStateException {
+        if (binary == null)
+            throw new IllegalStateException("Message was not encoded for binary clients.");
+        final int id = messageID == null ? -1 : messageID;
+        final byte[] out = new byte[binary.length + 4];
+        out[0] = binary[0];
+        out[1] = (byte) (id >>> 24);
+        out[2] = (byte) (id >>> 16);
+        out[3] = (byte) (id >>> 8);
+        out[4] = (byte) id;
+        System.arraycopy(binary, 1, out, 5, binary.length - 1);
+        return out;
+    }
+
+    /**
+     * @return UTF-8 encoded JSON object without the closing brace.
+     * @throws IllegalStateException When the message was not encoded for JSON clients.
+     */
+    @NotNull
+    private byte[] getPrefix() throws IllegalStateException {
+        if (prefix == null)
+            throw new IllegalStateException("Message was not encoded for JSON clients.");
+        return prefix;
+    }
+
+    /**
+     * @param messageID Message ID of the recipient or null if the recipient is not a client.
+     * @return UTF-8 encoded JSON object including the message ID.
+     * @throws IllegalStateException When the message was not encoded for JSON clients.
+     */
+    @NotNull
+    public byte[] encode(@Nullable Integer messageID) {
+        final byte[] jsonPrefix = getPrefix();
+        final byte[] suffix = suffix(messageID);
+        final byte[] out = new byte[jsonPrefix.length + suffix.length];
+        System.arraycopy(jsonPrefix, 0, out, 0, jsonPrefix.length);
+        System.arraycopy(suffix, 0, out, jsonPrefix.length, suffix.length);
+        return out;
+    }
+
+    /**
+     * @param messageID Message ID of the recipient or null if the recipient is not a client.
+     * @return UTF-8 encoded end of the JSON object, that is the message ID and the closing brace.
+     */
+    @NotNull
+    private byte[] suffix(@Nullable Integer messageID) {
+        if (messageID == null)
+            return new byte[]{'}'};
+        final byte[] id = Integer.toString(messageID).getBytes(StandardCharsets.US_ASCII);
+        final int separator = empty ? 0 : 1;
+        final byte[] out = new byte[separator + MESSAGE_ID_KEY.length + id.length + 1];
+        if (!empty)
+            out[0] = ',';
+        System.arraycopy(MESSAGE_ID_KEY, 0, out, separator, MESSAGE_ID_KEY.length);
+        System.arraycopy(id, 0, out, separator + MESSAGE_ID_KEY.length, id.length);
+        out[out.length - 1] = '}';
+        return out;
+    }
+
+    /**
+     * Compresses the message for permessage-deflate. The shared part of the message is compressed only once, the
+     * message ID is appended as a stored (uncompressed) deflate block, so it does not invalidate the shared part.
+     *
+     * @param messageID Message ID of the recipient or null if the recipient is not a client.
+     * @param stats     Statistics to be updated if the shared part has to be compressed.
+     * @return Compressed payload, without the trailing empty block as required by RFC 7692.
+     */
+    @NotNull
+    byte[] compress(@Nullable Integer messageID, @NotNull CompressionStats stats) {
+        final byte[] compressedPrefix = getCompressedPrefix(stats);
+        final byte[] suffix = suffix(messageID);
+        final byte[] out = new byte[compressedPrefix.length + 5 + suffix.length + 1];
+        System.arraycopy(compressedPrefix, 0, out, 0, compressedPrefix.length);
+        int position = compressedPrefix.length;
+        //Stored block header, not final, the data is byte aligned after the sync flush of the shared part
+        out[position++] = 0;
+        out[position++] = (byte) suffix.length;
+        out[position++] = (byte) (suffix.length >>> 8);
+        out[position++] = (byte) ~suffix.length;
+        out[position++] = (byte) (~suffix.length >>> 8);
+        System.arraycopy(suffix, 0, out, position, suffix.length);
+        //Header of the empty stored block, the receiver appends its length (00 00 ff ff) as in a sync flush
+        out[out.length - 1] = 0;
+        return out;
+    }
+
+    /**
+     * @param stats Statistics to be updated if the shared part has to be compressed.
+     * @return The shared part of the message compressed with a sync flush.
+     */
+    @NotNull
+    private byte[] getCompressedPrefix(@NotNull CompressionStats stats) {
+        byte[] compressed = compressedPrefix;
+        if (compressed == null) {
+            synchronized (this) {
+                compressed = compressedPrefix;
+                if (compressed == null) {
+                    final byte[] jsonPrefix = getPrefix();
+                    final long start = System.nanoTime();
+                    final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                    deflater.setInput(jsonPrefix);
+                    final ByteArrayOutputStream output = new ByteArrayOutputStream(jsonPrefix.length / 2 + 16);
+                    final byte[] buffer = new byte[1024];
+                    int bytesCompressed;
+                    while ((bytesCompressed = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)) > 0)
+                        output.write(buffer, 0, bytesCompressed);
+                    deflater.end();
+                    compressed = output.toByteArray();
+                    compressedPrefix = compressed;
+                    stats.compressed(System.nanoTime() - start);
+                }
+            }
+        }
+        return compressed;
+    }
+
+    /**
+     * Sends the message immediately, bypassing the {@link OutboundQueue} of the client.
+     *
+     * @param client Client the message shall be sent to.
+     */
+    public void send(@NotNull Client client) {
+        //The socket is read under the lock, it is not used after the client handed its message IDs over
+        synchronized (client.getLock()) {
+            final WebSocket socket = client.getSocket();
+            if (socket == null || !checkEncoded(socket)) return;
+            sendFrame(socket, client.getMessageID());
+        }
+    }
+
+    /**
+     * @param conn   Socket used to send the message.
+     * @param client Client using the socket or null if there is no client.
+     */
+    public void send(@NotNull WebSocket conn, @Nullable Client client) {
+        if (!checkEncoded(conn)) return;
+        if (client == null) {
+            sendFrame(conn, null);
+            return;
+        }
+        synchronized (client.getLock()) {
+            sendFrame(conn, client.getMessageID());
+        }
+    }
+
+    /**
+     * @param conn Socket used to send the message.
+     * @return Whether the message was encoded for the protocol of the socket. A client can reconnect with another
+     * protocol after the message was encoded, such a message is dropped.
+     */
+    private boolean checkEncoded(@NotNull WebSocket conn) {
+        final WireProtocol protocol = WireProtocol.of(conn);
+        if (isEncodedFor(protocol)) return true;
+        warning("[EncodedMessage] Message was not encoded for " + protocol + ", dropping it.");
+        return false;
+    }
+
+    /**
+     * @param conn      Socket used to send the message.
+     * @param messageID Message ID of the recipient or null if the recipient is not a client.
+     */
+    private void sendFrame(@NotNull WebSocket conn, @Nullable Integer messageID) {
+        if (WireProtocol.of(conn) == WireProtocol.BINARY) {
+            final BinaryFrame frame = new BinaryFrame();
+            frame.setPayload(ByteBuffer.wrap(encodeBinary(messageID)));
+            conn.sendFrame(frame);
+            return;
+        }
+        if (conn.getDraft() instanceof Draft_6455 draft && draft.getExtension() instanceof DeflateExtension deflate) {
+            final int size = getPrefix().length + suffix(messageID).length;
+            if (size >= deflate.getThreshold()) {
+                final byte[] payload = compress(messageID, deflate.getStats());
+                deflate.getStats().frameSent(size, payload.length);
+                conn.sendFrame(new PrecompressedFrame(payload));
+                return;
+            }
+        }
+        final TextFrame frame = new TextFrame();
+        frame.setPayload(ByteBuffer.wrap(encode(messageID)));
+        conn.sendFrame(frame);
+    }
+}
@@ -0,0 +1,120 @@
+package tech.kucharski.makao.server;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static tech.kucharski.makao.util.Logger.error;
+
+/**
+ * Requests received from a connection, waiting to be handled. The requests of a connection are handled one after
+ * another in the order they were received, requests of different connections are handled in parallel by the executor.
+ * The number of requests received but not yet handled is limited, further requests are rejected.
+ */
+public class InboundQueue {
+    /**
+     * Maximum number of requests handled in one run, before the queue yields to the other connections.
+     */
+    private static final int BATCH = 16;
+    @NotNull
+    private final Executor executor;
+    private final int limit;
+    private final ArrayDeque<Runnable> requests = new ArrayDeque<>();
+    private int inFlight = 0;
+    private long rejected = 0;
+    private boolean scheduled = false;
+
+    /**
+     * @param executor Executor handling the requests.
+     * @param limit    Maximum number of requests received but not yet handled.
+     */
+    public InboundQueue(@NotNull Executor executor, int limit) {
+        this.executor = executor;
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Queues a request.
+     *
+     * @param request Handles the request.
+     * @return Whether the request was queued, false if the connection has too many requests in flight.
+     */
+    public boolean offer(@NotNull Runnable request) {
+        synchronized (this) {
+            if (inFlight >= limit) {
+                rejected++;
+                return false;
+            }
+            inFlight++;
+            requests.add(request);
+            if (scheduled) return true;
+            scheduled = true;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Handles queued requests.
+     */
+    private void run() {
+        for (int i = 0; i < BATCH; i++) {
+            final Runnable request;
+            synchronized (this) {
+                request = requests.poll();
+                if (request == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                request.run();
+            } catch (RuntimeException e) {
+                error("[InboundQueue] Exception while handling a request");
+                error(e);
+            } finally {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Submits the queue to the executor.
+     */
+    private void schedule() {
+        try {
+            executor.execute(this::run);
+        } catch (RejectedExecutionException e) {
+            //The server is stopping
+            synchronized (this) {
+                inFlight -= requests.size();
+                requests.clear();
+                scheduled = false;
+            }
+        }
+    }
+
+    /**
+     * @return Number of requests received but not yet handled.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return Number of requests rejected, because too many were in flight.
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d in flight, %d rejected", inFlight, rejected);
+    }
+}
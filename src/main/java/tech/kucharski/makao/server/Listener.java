@@ -0,0 +1,91 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketAdapter;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.DefaultWebSocketServerFactory;
+import org.java_websocket.server.WebSocketServer;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.util.List;
+
+/**
+ * Accepts the connections of a {@link Server}. A listener has its own selector thread and decoding threads, all its
+ * events are passed to the server, so the clients of all listeners are shared. More listeners can be bound to the
+ * same port with SO_REUSEPORT, then the kernel spreads the incoming connections among them.
+ */
+public class Listener extends WebSocketServer {
+    @NotNull
+    private final Server server;
+
+    /**
+     * Creates a listener that binds to the address when it is started.
+     *
+     * @param server   Server handling the events.
+     * @param address  The address to listen to.
+     * @param decoders Number of threads decoding the frames.
+     * @param drafts   Drafts offered to the clients.
+     */
+    Listener(@NotNull Server server, @NotNull InetSocketAddress address, int decoders, @NotNull List<Draft> drafts) {
+        super(address, decoders, drafts);
+        this.server = server;
+    }
+
+    /**
+     * Creates a listener using a bound channel.
+     *
+     * @param server   Server handling the events.
+     * @param channel  A bound channel.
+     * @param decoders Number of threads decoding the frames.
+     * @param drafts   Drafts offered to the clients.
+     */
+    Listener(@NotNull Server server, @NotNull ServerSocketChannel channel, int decoders, @NotNull List<Draft> drafts) {
+        super(channel);
+        this.server = server;
+        //A channel cannot be passed together with the drafts and the number of decoders, they are replaced instead
+        setWebSocketFactory(new DefaultWebSocketServerFactory() {
+            @Override
+            public WebSocketImpl createWebSocket(WebSocketAdapter a, List<Draft> d) {
+                return super.createWebSocket(a, drafts);
+            }
+        });
+        this.decoders.clear();
+        for (int i = 0; i < decoders; i++)
+            this.decoders.add(new WebSocketWorker());
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        server.onOpen(conn, handshake);
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        server.onClose(conn, code, reason, remote);
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        server.onMessage(conn, message);
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, ByteBuffer message) {
+        server.onMessage(conn, message);
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+        server.onError(conn, ex);
+    }
+
+    @Override
+    public void onStart() {
+        server.onStart(this);
+    }
+}
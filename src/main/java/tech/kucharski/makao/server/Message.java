@@ -3,7 +3,13 @@ package tech.kucharski.makao.server;
 import com.google.gson.JsonObject;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Message to the client.
@@ -13,17 +19,45 @@ public interface Message {
      * Sends the message to all clients.
      */
     default void broadcast() {
-        Makao.getInstance().getServer().getOnlineClients().forEach(client -> send(client.getSocket()));
+        send(Makao.getInstance().getServer().getOnlineClients());
+    }
+
+    /**
+     * Sends the message to all clients subscribed to the topic.
+     *
+     * @param topic Topic of the message.
+     */
+    default void publish(@NotNull Topic topic) {
+        send(Makao.getInstance().getServer().getSubscribers(topic));
     }
 
     /**
+     * Queues the message for many clients, see {@link OutboundQueue}. The message is serialized only once.
+     *
+     * @param clients Clients the message shall be sent to.
+     */
+    default void send(@NotNull Iterable<Client> clients) {
+        final Set<WireProtocol> protocols = EnumSet.noneOf(WireProtocol.class);
+        for (Client client : clients)
+            protocols.add(WireProtocol.of(client.getSocket()));
+        final EncodedMessage encoded = EncodedMessage.of(this, protocols);
+        for (Client client : clients)
+            client.getOutboundQueue().offer(encoded);
+    }
+
+    /**
+     * Queues the message for the client using the socket, see {@link OutboundQueue}. If there is no such client, the
+     * message is sent immediately.
+     *
      * @param conn Socket used to send the message.
      */
     default void send(@NotNull WebSocket conn) {
-        final Client client = Makao.getInstance().getServer().getClient(conn);
-        synchronized (client == null ? new Object() : client.getLock()) {
-            conn.send(encode(conn));
-        }
+        final Client client = ClientRegistry.get(conn);
+        final EncodedMessage encoded = EncodedMessage.of(this, EnumSet.of(WireProtocol.of(conn)));
+        if (client != null && client.getSocket() == conn)
+            client.getOutboundQueue().offer(encoded);
+        else
+            encoded.send(conn, client);
     }
 
     /**
@@ -31,17 +65,46 @@ public interface Message {
      * @return JSON-encoded string
      */
     default String encode(@NotNull WebSocket conn) {
-        final JsonObject jsonObject = toJSONObject();
-        final Client client = Makao.getInstance().getServer().getClient(conn);
-        if (client != null) {
-            final int messageID = client.getMessageID();
-            jsonObject.addProperty("_msgID", messageID);
-        }
-        return jsonObject.toString();
+        final Client client = ClientRegistry.get(conn);
+        return new String(EncodedMessage.of(this).encode(client == null ? null : client.getMessageID()),
+                StandardCharsets.UTF_8);
     }
 
     /**
      * @return JSON object
      */
     JsonObject toJSONObject();
+
+    /**
+     * Messages built from parts serialized in advance override this, so the parts are not built and serialized again.
+     *
+     * @return The JSON object serialized to a string.
+     */
+    @NotNull
+    default String toJSONString() {
+        return toJSONObject().toString();
+    }
+
+    /**
+     * Messages carrying the whole state of something, for example a game, supersede the older ones. When a message
+     * with the same key is still waiting in the {@link OutboundQueue} of a client, only the newer one is sent, at its
+     * own position in the queue. Messages carrying the state version of a game must not be coalesced.
+     *
+     * @return Key identifying messages superseded by this one or null if every message has to be delivered.
+     */
+    @Nullable
+    default Object getCoalescingKey() {
+        return null;
+    }
+
+    /**
+     * Writes the message in the {@link WireProtocol#BINARY} protocol, starting with its {@link Messages} type. The
+     * message ID is inserted after the type when the message is sent.
+     *
+     * @param out Writer the message shall be written to.
+     * @throws UnsupportedOperationException When the message has no binary representation.
+     */
+    default void writeBinary(@NotNull BinaryWriter out) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " has no binary representation.");
+    }
 }
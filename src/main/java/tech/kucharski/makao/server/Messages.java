@@ -0,0 +1,62 @@
+package tech.kucharski.makao.server;
+
+/**
+ * Types of messages sent in the {@link WireProtocol#BINARY} protocol. The ordinal is sent to the client, so new types
+ * must be added at the end.
+ */
+@SuppressWarnings("JavaDoc")
+public enum Messages {
+    HELLO,
+    CLIENT_INFO,
+    HEARTBEAT,
+    GAME_LIST_ADDED,
+    GAME_LIST_REMOVED,
+    GAME_LIST_UPDATED,
+    GAME__PLAYER_JOINED,
+    GAME__PLAYER_LEFT,
+    GAME__PLAYER_ID_ASSIGNED,
+    GAME__SELF_CARDS_UPDATED,
+    GAME__NEXT_TURN,
+    GAME__GAME_STATE_CHANGED,
+    GAME__DECK_UPDATED,
+    /**
+     * Response to any request that has no data to return.
+     */
+    ACK,
+    /**
+     * Response with an error code.
+     */
+    ERROR,
+    /**
+     * Response to {@link Requests#GET_GAMES}.
+     */
+    GET_GAMES,
+    /**
+     * Response to {@link Requests#GAME__LIST}.
+     */
+    GAME__LIST,
+    /**
+     * Response to {@link Requests#GAME__UPDATE}.
+     */
+    GAME__UPDATE,
+    /**
+     * Changes of the list of joinable games collected over the lobby update window.
+     */
+    GAME_LIST_CHANGED,
+    /**
+     * Cards the player whose turn it is can play.
+     */
+    GAME__PLAYABLE_CARDS,
+    /**
+     * Versioned delta, the phase of the game changed.
+     */
+    GAME__PHASE_CHANGED,
+    /**
+     * Versioned delta, a player played or drew cards.
+     */
+    GAME__CARDS_MOVED,
+    /**
+     * Response to {@link Requests#GAME__DISCARD_PILE}.
+     */
+    GAME__DISCARD_PILE
+}
@@ -0,0 +1,328 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.framing.CloseFrame;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static tech.kucharski.makao.util.Logger.warning;
+
+/**
+ * Messages waiting to be sent to a client. The queue is drained asynchronously, so a slow client does not block the
+ * thread sending the message, for example the thread changing a game. Only a few frames are handed to the socket at
+ * once, the rest waits in the queue, where a newer message with the same {@link Message#getCoalescingKey()} replaces
+ * the older unsent one. A client that fills the queue, or stays over its high-water mark for longer than the slow client
+ * timeout, is disconnected.
+ */
+public class OutboundQueue {
+    /**
+     * Maximum number of frames buffered in the socket, further messages wait in the queue.
+     */
+    private static final int SOCKET_WINDOW = 16;
+    /**
+     * Delay in milliseconds before the queue is drained again, when the socket window is full.
+     */
+    private static final long RETRY_DELAY = 10;
+    private final int capacity;
+    @NotNull
+    private final Client client;
+    @NotNull
+    private final Executor executor;
+    private final int highWaterMark;
+    /**
+     * Unsent messages by their coalescing key.
+     */
+    private final Map<Object, Entry> keyed = new HashMap<>();
+    @NotNull
+    private final Executor retryExecutor;
+    private final long slowTimeoutNanos;
+    private long coalesced = 0;
+    private int depth = 0;
+    private long dropped = 0;
+    @Nullable
+    private Entry head = null;
+    private long latencyNanos = 0;
+    private long maxLatencyNanos = 0;
+    private boolean scheduled = false;
+    private long sent = 0;
+    private boolean slow = false;
+    private long slowSince = 0;
+    @Nullable
+    private Entry tail = null;
+
+    /**
+     * @param client            Client the messages are sent to.
+     * @param executor          Executor draining the queue.
+     * @param capacity          Maximum number of unsent messages.
+     * @param highWaterMark     Number of unsent messages above which the client is considered slow.
+     * @param slowTimeoutMillis How long in milliseconds a client may stay slow before it is disconnected.
+     */
+    public OutboundQueue(@NotNull Client client, @NotNull Executor executor, int capacity, int highWaterMark,
+                         long slowTimeoutMillis) {
+        this.client = client;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.highWaterMark = Math.min(highWaterMark, capacity);
+        this.slowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(slowTimeoutMillis);
+        retryExecutor = CompletableFuture.delayedExecutor(RETRY_DELAY, TimeUnit.MILLISECONDS, executor);
+    }
+
+    /**
+     * Queues a message. An unsent message with the same coalescing key is removed, the new one is placed at the end of
+     * the queue.
+     *
+     * @param message Message to be sent.
+     */
+    public void offer(@NotNull EncodedMessage message) {
+        final boolean full, schedule, markedSlow;
+        synchronized (this) {
+            full = depth >= capacity;
+            if (full) {
+                dropped++;
+                schedule = markedSlow = false;
+            } else {
+                final Object key = message.getCoalescingKey();
+                final Entry entry = new Entry(message, key, System.nanoTime());
+                if (key != null) {
+                    final Entry previous = keyed.put(key, entry);
+                    if (previous != null) {
+                        unlink(previous);
+                        coalesced++;
+                    }
+                }
+                link(entry);
+                markedSlow = !slow && depth > highWaterMark;
+                if (markedSlow) {
+                    slow = true;
+                    slowSince = entry.enqueued;
+                }
+                schedule = !scheduled;
+                scheduled = true;
+            }
+        }
+        if (full) {
+            disconnect("queue is full");
+            return;
+        }
+        if (markedSlow)
+            warning("[OutboundQueue] Client " + client.getUUID() + " is slow, " + getDepth() + " messages queued.");
+        else
+            checkSlow();
+        if (schedule)
+            executor.execute(this::drain);
+    }
+
+    /**
+     * Disconnects the client if it stayed over the high-water mark for longer than the slow client timeout.
+     */
+    public void checkSlow() {
+        final boolean timedOut;
+        synchronized (this) {
+            timedOut = slow && System.nanoTime() - slowSince > slowTimeoutNanos;
+        }
+        if (timedOut)
+            disconnect("over the high-water mark for too long");
+    }
+
+    /**
+     * Sends queued messages while the socket accepts them.
+     */
+    private void drain() {
+        while (true) {
+            final WebSocket socket = client.getSocket();
+            if (socket == null || !socket.isOpen()) {
+                synchronized (this) {
+                    dropped += depth;
+                    clear();
+                    scheduled = false;
+                }
+                return;
+            }
+            if (getBufferedFrames(socket) >= SOCKET_WINDOW) {
+                checkSlow();
+                retryExecutor.execute(this::drain);
+                return;
+            }
+            final EncodedMessage message = poll();
+            if (message == null) return;
+            message.send(client);
+        }
+    }
+
+    /**
+     * Removes the first message from the queue and records its latency.
+     *
+     * @return The first message or null if the queue is empty, then the queue has to be scheduled again.
+     */
+    @Nullable
+    synchronized EncodedMessage poll() {
+        final Entry entry = head;
+        if (entry == null) {
+            scheduled = false;
+            return null;
+        }
+        unlink(entry);
+        if (entry.key != null)
+            keyed.remove(entry.key);
+        final long latency = System.nanoTime() - entry.enqueued;
+        latencyNanos += latency;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        sent++;
+        if (depth <= highWaterMark)
+            slow = false;
+        return entry.message;
+    }
+
+    /**
+     * Drops all queued messages and closes the socket of the client.
+     *
+     * @param reason Why the client is disconnected.
+     */
+    private void disconnect(@NotNull String reason) {
+        final WebSocket socket = client.getSocket();
+        synchronized (this) {
+            warning("[OutboundQueue] Disconnecting client " + client.getUUID() + ", " + reason + ": " + this);
+            dropped += depth;
+            clear();
+            slow = false;
+        }
+        if (socket != null)
+            socket.close(CloseFrame.TRY_AGAIN_LATER, "Client is too slow.");
+    }
+
+    /**
+     * @param socket A socket.
+     * @return Number of frames waiting to be written to the socket.
+     */
+    private static int getBufferedFrames(@NotNull WebSocket socket) {
+        if (socket instanceof WebSocketImpl impl)
+            return impl.outQueue.size();
+        return socket.hasBufferedData() ? 1 : 0;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    private void clear() {
+        head = tail = null;
+        keyed.clear();
+        depth = 0;
+    }
+
+    /**
+     * @param entry Entry to be added at the end.
+     */
+    private void link(@NotNull Entry entry) {
+        entry.previous = tail;
+        if (tail == null)
+            head = entry;
+        else
+            tail.next = entry;
+        tail = entry;
+        depth++;
+    }
+
+    /**
+     * @param entry Entry to be removed.
+     */
+    private void unlink(@NotNull Entry entry) {
+        if (entry.previous == null)
+            head = entry.next;
+        else
+            entry.previous.next = entry.next;
+        if (entry.next == null)
+            tail = entry.previous;
+        else
+            entry.next.previous = entry.previous;
+        entry.previous = entry.next = null;
+        depth--;
+    }
+
+    /**
+     * @return Average time in nanoseconds between queueing a message and handing it to the socket.
+     */
+    public synchronized long getAverageLatencyNanos() {
+        return sent == 0 ? 0 : latencyNanos / sent;
+    }
+
+    /**
+     * @return Number of messages removed, because a newer message replaced them.
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return Number of unsent messages.
+     */
+    public synchronized int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return Number of messages dropped, because the queue was full or the client disconnected.
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return Longest time in nanoseconds between queueing a message and handing it to the socket.
+     */
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * @return Number of messages handed to the socket.
+     */
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    /**
+     * @return Whether the client is over its high-water mark.
+     */
+    public synchronized boolean isSlow() {
+        return slow;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d queued, %d sent, %d coalesced, %d dropped, latency %.2f ms avg, %.2f ms max", depth,
+                sent, coalesced, dropped, getAverageLatencyNanos() / 1_000_000d, maxLatencyNanos / 1_000_000d);
+    }
+
+    /**
+     * A queued message.
+     */
+    private static final class Entry {
+        private final long enqueued;
+        @Nullable
+        private final Object key;
+        @NotNull
+        private final EncodedMessage message;
+        @Nullable
+        private Entry next = null;
+        @Nullable
+        private Entry previous = null;
+
+        /**
+         * @param message  Message to be sent.
+         * @param key      Coalescing key of the message or null.
+         * @param enqueued When the message was queued, see {@link System#nanoTime()}.
+         */
+        private Entry(@NotNull EncodedMessage message, @Nullable Object key, long enqueued) {
+            this.message = message;
+            this.key = key;
+            this.enqueued = enqueued;
+        }
+    }
+}
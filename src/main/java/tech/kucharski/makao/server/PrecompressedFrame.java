@@ -0,0 +1,19 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.framing.TextFrame;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A text frame whose payload is already compressed with permessage-deflate.
+ */
+class PrecompressedFrame extends TextFrame {
+    /**
+     * @param payload Compressed payload.
+     */
+    PrecompressedFrame(@NotNull byte[] payload) {
+        setRSV1(true);
+        setPayload(ByteBuffer.wrap(payload));
+    }
+}
@@ -2,11 +2,19 @@ package tech.kucharski.makao.server;
 
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.util.MessageSchema;
+
+import java.util.UUID;
 
 /**
  * A request from the client.
  */
 public interface Request {
+    /**
+     * ID of the request, present in every request.
+     */
+    MessageSchema.Field<UUID> REQUEST_ID = MessageSchema.uuid("uuid");
+
     /**
      * @param socket Socket that sent the request.
      */
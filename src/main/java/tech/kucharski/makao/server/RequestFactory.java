@@ -0,0 +1,18 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Creates a request from its JSON data.
+ */
+@FunctionalInterface
+public interface RequestFactory {
+    /**
+     * @param jsonObject Request data.
+     * @return A new request.
+     * @throws InvalidRequestException When request data is invalid.
+     */
+    @NotNull
+    Request create(@NotNull JsonObject jsonObject) throws InvalidRequestException;
+}
@@ -0,0 +1,68 @@
+package tech.kucharski.makao.server;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the incoming requests. The time a WebSocket decoding thread spends in a message callback delays all
+ * other connections served by the thread.
+ */
+public class RequestStats {
+    private final LongAdder decoderNanos = new LongAdder();
+    private final LongAccumulator maxDecoderNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * Records that a message callback returned.
+     *
+     * @param nanos Time spent in the callback.
+     */
+    public void received(long nanos) {
+        requests.increment();
+        decoderNanos.add(nanos);
+        maxDecoderNanos.accumulate(nanos);
+    }
+
+    /**
+     * Records that a request was rejected, because its connection had too many requests in flight.
+     */
+    public void rejected() {
+        rejected.increment();
+    }
+
+    /**
+     * @return Average time in nanoseconds a decoding thread spent in a message callback.
+     */
+    public long getAverageDecoderNanos() {
+        final long count = requests.sum();
+        return count == 0 ? 0 : decoderNanos.sum() / count;
+    }
+
+    /**
+     * @return Longest time in nanoseconds a decoding thread spent in a message callback.
+     */
+    public long getMaxDecoderNanos() {
+        return maxDecoderNanos.get();
+    }
+
+    /**
+     * @return Number of requests rejected, because their connection had too many requests in flight.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return Number of messages received.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests, decoder thread blocked %.1f us avg, %.2f ms max, %d rejected", getRequests(),
+                getAverageDecoderNanos() / 1_000d, getMaxDecoderNanos() / 1_000_000d, getRejected());
+    }
+}
@@ -3,72 +3,146 @@ package tech.kucharski.makao.server;
 import com.google.gson.JsonObject;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tech.kucharski.makao.server.requests.*;
 import tech.kucharski.makao.server.requests.game.*;
+import tech.kucharski.makao.server.requests.lobby.SubscribeRequest;
+import tech.kucharski.makao.server.requests.lobby.UnsubscribeRequest;
+import tech.kucharski.makao.util.BinaryReader;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.BufferUnderflowException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 /**
- * Supported requests
+ * Supported requests. The ordinal is the type of the request in the {@link WireProtocol#BINARY} protocol, so new
+ * requests must be added at the end.
  */
 public enum Requests {
     /**
      * Tells the server that client is still alive.
      */
-    HEARTBEAT(HeartbeatRequest.class),
+    HEARTBEAT(HeartbeatRequest.class, HeartbeatRequest::fromJSON, HeartbeatRequest::fromBinary),
     /**
      * Changes ID of the client after reconnect.
      */
-    AUTH(AuthRequest.class),
+    AUTH(AuthRequest.class, AuthRequest::fromJSON, AuthRequest::fromBinary),
     /**
      * Lists joinable games.
      */
-    GET_GAMES(GetGamesRequest.class),
+    GET_GAMES(GetGamesRequest.class, GetGamesRequest::fromJSON, GetGamesRequest::fromBinary),
     /**
      * Creates a game.
      */
-    CREATE_GAME(CreateGameRequest.class),
+    CREATE_GAME(CreateGameRequest.class, CreateGameRequest::fromJSON, CreateGameRequest::fromBinary),
     /**
      * Plays a card in a game.
      */
-    GAME__PLAY_CARD(PlayCardRequest.class),
+    GAME__PLAY_CARD(PlayCardRequest.class, PlayCardRequest::fromJSON, PlayCardRequest::fromBinary),
     /**
      * Plays a card in a game.
      */
-    GAME__DRAW_CARD(DrawCardRequest.class),
+    GAME__DRAW_CARD(DrawCardRequest.class, DrawCardRequest::fromJSON, DrawCardRequest::fromBinary),
     /**
      * Starts a game.
      */
-    GAME__START_GAME(StartGameRequest.class),
+    GAME__START_GAME(StartGameRequest.class, StartGameRequest::fromJSON, StartGameRequest::fromBinary),
     /**
      * Lists all games the client takes part in.
      */
-    GAME__LIST(ListRequest.class),
+    GAME__LIST(ListRequest.class, ListRequest::fromJSON, ListRequest::fromBinary),
     /**
      * Makes player join a game.
      */
-    GAME__JOIN(JoinRequest.class),
+    GAME__JOIN(JoinRequest.class, JoinRequest::fromJSON, JoinRequest::fromBinary),
     /**
      * Sends full update of the game to the client.
      */
-    GAME__UPDATE(UpdateRequest.class),
+    GAME__UPDATE(UpdateRequest.class, UpdateRequest::fromJSON, UpdateRequest::fromBinary),
     /**
      * Asks the server to change the avatar of the user.
      */
-    CHANGE_AVATAR(ChangeAvatarRequest.class),
+    CHANGE_AVATAR(ChangeAvatarRequest.class, ChangeAvatarRequest::fromJSON, ChangeAvatarRequest::fromBinary),
     /**
      * Asks the server to change the name of the user.
      */
-    CHANGE_NAME(ChangeNameRequest.class);
+    CHANGE_NAME(ChangeNameRequest.class, ChangeNameRequest::fromJSON, ChangeNameRequest::fromBinary),
+    /**
+     * Subscribes the client to the changes of the list of joinable games.
+     */
+    LOBBY__SUBSCRIBE(SubscribeRequest.class, SubscribeRequest::fromJSON, SubscribeRequest::fromBinary),
+    /**
+     * Unsubscribes the client from the changes of the list of joinable games.
+     */
+    LOBBY__UNSUBSCRIBE(UnsubscribeRequest.class, UnsubscribeRequest::fromJSON, UnsubscribeRequest::fromBinary),
+    /**
+     * Sends the whole discard pile of a game to the client.
+     */
+    GAME__DISCARD_PILE(DiscardPileRequest.class, DiscardPileRequest::fromJSON, DiscardPileRequest::fromBinary);
 
+    /**
+     * Requests by their ordinals.
+     */
+    private static final Requests[] BY_OPCODE = values();
+    private final BinaryRequestFactory binaryFactory;
     private final Class<? extends Request> clazz;
+    private final RequestFactory factory;
+    private final String wireName;
+
+    /**
+     * Requests by their wire names, built once when the class is loaded.
+     */
+    private static final Map<String, Requests> BY_WIRE_NAME;
+
+    static {
+        final Map<String, Requests> byWireName = new HashMap<>();
+        for (Requests request : values())
+            byWireName.put(request.getWireName(), request);
+        BY_WIRE_NAME = Collections.unmodifiableMap(byWireName);
+    }
 
     /**
-     * @param clazz Request class.
+     * @param clazz         Request class.
+     * @param factory       Factory creating the request from its JSON data.
+     * @param binaryFactory Factory creating the request from its binary data.
      */
-    Requests(Class<? extends Request> clazz) {
+    Requests(Class<? extends Request> clazz, RequestFactory factory, BinaryRequestFactory binaryFactory) {
         this.clazz = clazz;
+        this.factory = factory;
+        this.binaryFactory = binaryFactory;
+        this.wireName = name().replace("__", ".");
+    }
+
+    /**
+     * @param wireName Name of the request as sent by the client, for example <code>GAME.PLAY_CARD</code>.
+     * @return A request type or null if there is no such request.
+     */
+    @Nullable
+    public static Requests fromWireName(@Nullable String wireName) {
+        return wireName == null ? null : BY_WIRE_NAME.get(wireName);
+    }
+
+    /**
+     * @param opcode Type of the request in the binary protocol.
+     * @return A request type or null if there is no such request.
+     */
+    @Nullable
+    public static Requests fromOpcode(int opcode) {
+        return opcode >= 0 && opcode < BY_OPCODE.length ? BY_OPCODE[opcode] : null;
+    }
+
+    /**
+     * Creates the request.
+     *
+     * @param jsonObject Request data.
+     * @return A new request.
+     * @throws InvalidRequestException When request is invalid
+     */
+    @NotNull
+    public Request create(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        return factory.create(jsonObject);
     }
 
     /**
@@ -76,25 +150,47 @@ public enum Requests {
      *
      * @param jsonObject Request data.
      * @param socket     Socket that sent the request.
-     * @throws NoSuchMethodException     When request is invalid
-     * @throws InvocationTargetException When request is invalid
-     * @throws InstantiationException    When request is invalid
-     * @throws IllegalAccessException    When request is invalid
-     * @throws InvalidRequestException   When request is invalid
-     */
-    public void handle(JsonObject jsonObject, @NotNull WebSocket socket)
-            throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException,
-            InvalidRequestException {
-        final Constructor<? extends Request> constructor = getClazz().getDeclaredConstructor(JsonObject.class);
-        final Request request;
+     * @throws InvalidRequestException When request is invalid
+     */
+    public void handle(@NotNull JsonObject jsonObject, @NotNull WebSocket socket) throws InvalidRequestException {
+        create(jsonObject).handle(socket);
+    }
+
+    /**
+     * Creates the request from its binary data.
+     *
+     * @param reqID Request ID.
+     * @param in    Request data following the request ID.
+     * @return A new request.
+     * @throws InvalidRequestException When request is invalid
+     */
+    @NotNull
+    public Request create(@NotNull UUID reqID, @NotNull BinaryReader in) throws InvalidRequestException {
         try {
-            request = constructor.newInstance(jsonObject);
-        } catch (InvocationTargetException e) {
-            if (e.getTargetException() instanceof InvalidRequestException)
-                throw (InvalidRequestException) e.getTargetException();
-            throw e;
+            return binaryFactory.create(reqID, in);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new InvalidRequestException();
         }
-        request.handle(socket);
+    }
+
+    /**
+     * Handles the request sent in the binary protocol.
+     *
+     * @param reqID  Request ID.
+     * @param in     Request data following the request ID.
+     * @param socket Socket that sent the request.
+     * @throws InvalidRequestException When request is invalid
+     */
+    public void handle(@NotNull UUID reqID, @NotNull BinaryReader in, @NotNull WebSocket socket)
+            throws InvalidRequestException {
+        create(reqID, in).handle(socket);
+    }
+
+    /**
+     * @return Type of the request in the binary protocol.
+     */
+    public int getOpcode() {
+        return ordinal();
     }
 
     /**
@@ -103,5 +199,12 @@ public enum Requests {
     public Class<? extends Request> getClazz() {
         return clazz;
     }
-}
 
+    /**
+     * @return Name of the request as sent by the client.
+     */
+    @NotNull
+    public String getWireName() {
+        return wireName;
+    }
+}
@@ -1,11 +1,14 @@
 package tech.kucharski.makao.server;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.IExtension;
 import org.java_websocket.framing.CloseFrame;
 import org.java_websocket.handshake.ClientHandshake;
-import org.java_websocket.server.WebSocketServer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tech.kucharski.makao.Makao;
@@ -14,32 +17,223 @@ import tech.kucharski.makao.server.messages.HeartbeatMessage;
 import tech.kucharski.makao.server.messages.HelloMessage;
 import tech.kucharski.makao.server.messages.responses.AckResponse;
 import tech.kucharski.makao.server.messages.responses.ErrorResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.HashedTimingWheel;
+import tech.kucharski.makao.util.MessageSchema;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static tech.kucharski.makao.util.Logger.*;
 
 /**
- * Makao server
+ * Makao server. The connections are accepted by one or more {@link Listener}s, which share the clients.
  */
-public class Server extends WebSocketServer {
-    private final List<Client> clients = Collections.synchronizedList(new ArrayList<>());
-    private final Timer heartbeatTimer = new Timer(true);
+public class Server {
+    private static final MessageSchema.Field<String> REQ = MessageSchema.string("req");
+    /**
+     * Fields common to all requests.
+     */
+    private static final MessageSchema ENVELOPE = new MessageSchema(REQ, Request.REQUEST_ID);
+    /**
+     * Interval of the compression statistics log in milliseconds.
+     */
+    private static final long COMPRESSION_STATS_INTERVAL = 60000;
+    /**
+     * Heartbeat message encoded once for all clients.
+     */
+    private static final EncodedMessage HEARTBEAT =
+            EncodedMessage.of(new HeartbeatMessage(), EnumSet.allOf(WireProtocol.class));
+    /**
+     * Interval between heartbeats sent to a client in nanoseconds.
+     */
+    private static final long HEARTBEAT_INTERVAL = TimeUnit.MILLISECONDS.toNanos(2500);
+    /**
+     * Tick of the liveness wheel in milliseconds.
+     */
+    private static final long LIVENESS_TICK = 100;
+    /**
+     * Interval of the request statistics log in milliseconds.
+     */
+    private static final long REQUEST_STATS_INTERVAL = 60000;
+    private final ClientRegistry clients = new ClientRegistry();
+    private final CompressionStats compressionStats;
+    /**
+     * Runs the liveness wheel and the periodic logs.
+     */
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Heartbeat").setDaemon(true).build());
     private final UUID instanceUUID = UUID.randomUUID();
-    private final Map<UUID, Client> uuidClientMap = Collections.synchronizedMap(new HashMap<>());
-    private final Map<WebSocket, Client> webSocketClientMap = Collections.synchronizedMap(new HashMap<>());
+    /**
+     * Connected clients by the time of their next heartbeat.
+     */
+    private final HashedTimingWheel<Client> livenessWheel =
+            new HashedTimingWheel<>(LIVENESS_TICK, TimeUnit.MILLISECONDS, 64, System.nanoTime());
+    @NotNull
+    private final List<Listener> listeners;
+    /**
+     * Sends the messages queued for the clients, see {@link OutboundQueue}.
+     */
+    private final ExecutorService outboundExecutor;
+    /**
+     * Serializes client ID changes, so two sockets cannot take over the same client.
+     */
+    private final Object reconnectLock = new Object();
+    /**
+     * Handles the requests, see {@link InboundQueue}. Null if the requests are handled inline.
+     */
+    @Nullable
+    private final ExecutorService requestExecutor;
+    private final RequestStats requestStats = new RequestStats();
+    private final ServerSettings settings;
+    /**
+     * Whether the first listener has started.
+     */
+    private final AtomicBoolean started = new AtomicBoolean(false);
 
     /**
-     * Creates a WebSocketServer that will attempt to bind/listen on the given <var>address</var>.
+     * Creates a server that will attempt to bind/listen on the given <var>address</var>.
      *
      * @param inetSocketAddress The address to listen to
      */
     public Server(InetSocketAddress inetSocketAddress) {
-        super(inetSocketAddress);
+        this(inetSocketAddress, new ServerSettings());
+    }
+
+    /**
+     * Creates a server that will attempt to bind/listen on the given <var>address</var>. With more than one listener
+     * the address is bound immediately.
+     *
+     * @param inetSocketAddress The address to listen to
+     * @param settings          Settings of the server
+     */
+    public Server(InetSocketAddress inetSocketAddress, @NotNull ServerSettings settings) {
+        this(inetSocketAddress, settings, new CompressionStats());
+    }
+
+    /**
+     * @param inetSocketAddress The address to listen to
+     * @param settings          Settings of the server
+     * @param compressionStats  Statistics shared with the compression extension
+     */
+    private Server(InetSocketAddress inetSocketAddress, @NotNull ServerSettings settings,
+                   @NotNull CompressionStats compressionStats) {
+        this.settings = settings;
+        this.compressionStats = compressionStats;
+        listeners = createListeners(inetSocketAddress, getDrafts(settings, compressionStats));
+        outboundExecutor = Executors.newFixedThreadPool(settings.getOutboundThreads(),
+                new ThreadFactoryBuilder().setNameFormat("Outbound-%d").setDaemon(true).build());
+        requestExecutor = settings.isInlineRequests() ? null : Executors.newFixedThreadPool(settings.getRequestThreads(),
+                new ThreadFactoryBuilder().setNameFormat("Request-%d").setDaemon(true).build());
+    }
+
+    /**
+     * @param settings         Settings of the server
+     * @param compressionStats Statistics shared with the compression extension
+     * @return Drafts offered to the clients.
+     */
+    @NotNull
+    private static List<Draft> getDrafts(@NotNull ServerSettings settings, @NotNull CompressionStats compressionStats) {
+        final List<IExtension> extensions = settings.isCompression() ?
+                List.of(new DeflateExtension(settings.getCompressionThreshold(), compressionStats)) : List.of();
+        return List.of(new Draft_6455(extensions, WireProtocol.getProtocols()));
+    }
+
+    /**
+     * Creates the listeners, more of them are bound to the same port with SO_REUSEPORT.
+     *
+     * @param address The address to listen to
+     * @param drafts  Drafts offered to the clients.
+     * @return The listeners.
+     */
+    @NotNull
+    private List<Listener> createListeners(@NotNull InetSocketAddress address, @NotNull List<Draft> drafts) {
+        final int count = settings.getListeners();
+        if (count == 1)
+            return List.of(new Listener(this, address, settings.getDecoderThreads(), drafts));
+        final List<ServerSocketChannel> channels = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                final ServerSocketChannel channel = ServerSocketChannel.open();
+                channels.add(channel);
+                channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                channel.bind(address);
+                //An ephemeral port is chosen by the first bind, the other listeners have to use the same one
+                address = (InetSocketAddress) channel.getLocalAddress();
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            for (ServerSocketChannel channel : channels) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new IllegalStateException("Failed to bind " + count + " listeners to " + address + ".", e);
+        }
+        final List<Listener> listeners = new ArrayList<>(count);
+        for (ServerSocketChannel channel : channels)
+            listeners.add(new Listener(this, channel, settings.getDecoderThreads(), drafts));
+        return Collections.unmodifiableList(listeners);
+    }
+
+    /**
+     * Starts all listeners.
+     */
+    public void start() {
+        for (Listener listener : listeners)
+            listener.start();
+    }
+
+    /**
+     * Stops all listeners, closing their connections.
+     *
+     * @param timeout Timeout in milliseconds for each listener to close its connections.
+     * @throws InterruptedException When interrupted while waiting for a listener to stop.
+     */
+    public void stop(int timeout) throws InterruptedException {
+        for (Listener listener : listeners)
+            listener.stop(timeout);
+    }
+
+    /**
+     * @return Listeners accepting the connections.
+     */
+    @NotNull
+    public List<Listener> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * @return Port the server listens on, or 0 if it is not bound yet.
+     */
+    public int getPort() {
+        return listeners.get(0).getPort();
+    }
+
+    /**
+     * @return Statistics of the outgoing message compression.
+     */
+    @NotNull
+    public CompressionStats getCompressionStats() {
+        return compressionStats;
+    }
+
+    /**
+     * @return Statistics of the incoming requests.
+     */
+    @NotNull
+    public RequestStats getRequestStats() {
+        return requestStats;
     }
 
     /**
@@ -50,12 +244,13 @@ public class Server extends WebSocketServer {
      * @param reason Additional information string
      * @param remote Whether remote closed connection
      **/
-    @Override
     public void onClose(WebSocket conn, int code, String reason, boolean remote) {
         final Client client = getClient(conn);
 
         log(String.format("[Server] Connection with %s (%s) was closed.", conn.getRemoteSocketAddress(),
                 client == null ? "no client" : client.getUUID()));
+        if (client != null)
+            debug("[Server] Outbound queue of " + client.getUUID() + ": " + client.getOutboundQueue());
 
         //Update client state
         if (client != null)
@@ -68,7 +263,7 @@ public class Server extends WebSocketServer {
      */
     @Nullable
     public Client getClient(@Nullable WebSocket socket) {
-        return webSocketClientMap.get(socket);
+        return ClientRegistry.get(socket);
     }
 
     /**
@@ -79,7 +274,6 @@ public class Server extends WebSocketServer {
      * @param conn Can be null if the error does not belong to one specific websocket. For example if the servers port could not be bound.
      * @param ex   The exception causing this error
      **/
-    @Override
     public void onError(WebSocket conn, Exception ex) {
         error("[Server] Exception in socket " + conn);
         error(ex);
@@ -91,8 +285,51 @@ public class Server extends WebSocketServer {
      * @param conn    The <tt>WebSocket</tt> instance this event is occurring on.
      * @param message The UTF-8 decoded message that was received.
      **/
-    @Override
     public void onMessage(WebSocket conn, String message) {
+        dispatch(conn, () -> handle(conn, message));
+    }
+
+    /**
+     * Callback for binary messages received from the remote host, see {@link WireProtocol#BINARY}.
+     *
+     * @param conn    The <tt>WebSocket</tt> instance this event is occurring on.
+     * @param message The binary message that was received.
+     **/
+    public void onMessage(WebSocket conn, ByteBuffer message) {
+        dispatch(conn, () -> handle(conn, message));
+    }
+
+    /**
+     * Hands a received message over to the {@link InboundQueue} of the connection, or handles it on the calling
+     * thread, when the requests are handled inline.
+     *
+     * @param conn    The <tt>WebSocket</tt> instance the message was received on.
+     * @param handler Handles the message.
+     */
+    private void dispatch(@NotNull WebSocket conn, @NotNull Runnable handler) {
+        final long start = System.nanoTime();
+        try {
+            final Client client = getClient(conn);
+            final InboundQueue queue = client == null ? null : client.getInboundQueue();
+            if (queue == null) {
+                handler.run();
+            } else if (!queue.offer(handler)) {
+                warning("[Server] Too many requests in flight from " + client.getUUID() + ", rejecting a request.");
+                requestStats.rejected();
+                sendError(conn, null, ErrorResponse.TOO_MANY_REQUESTS);
+            }
+        } finally {
+            requestStats.received(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Parses and handles a text message.
+     *
+     * @param conn    The <tt>WebSocket</tt> instance the message was received on.
+     * @param message The UTF-8 decoded message that was received.
+     */
+    private void handle(@NotNull WebSocket conn, @NotNull String message) {
         final Client client = getClient(conn);
         if (client != null) {
             debug("[Server] Received message from " + client.getUUID() + ": " + message);
@@ -100,38 +337,54 @@ public class Server extends WebSocketServer {
             debug("[Server] Received message from " + conn.getRemoteSocketAddress() + ": " + message);
         }
         final JsonObject jsonObject = JsonParser.parseString(message).getAsJsonObject();
-        if (!new MessageValidator()
-                .requirePrimitive("req", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject)) {
+        final MessageSchema.Values values = ENVELOPE.parse(jsonObject);
+        if (values == null) {
             warning("[Server] Invalid message received.");
             sendError(conn, null, ErrorResponse.BAD_REQUEST);
             return;
         }
-        String req = jsonObject.get("req").getAsJsonPrimitive().getAsString().replace(".", "__");
-        UUID uuid;
-        try {
-            uuid = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
+        final UUID uuid = values.get(Request.REQUEST_ID);
+        final Requests request = Requests.fromWireName(values.get(REQ));
+        if (request == null) {
             warning("[Server] Invalid message received.");
-            sendError(conn, null, ErrorResponse.BAD_REQUEST);
+            sendError(conn, uuid, ErrorResponse.BAD_REQUEST);
             return;
         }
+        try {
+            request.handle(jsonObject, conn);
+        } catch (InvalidRequestException e) {
+            sendError(conn, uuid, ErrorResponse.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Parses and handles a binary message.
+     *
+     * @param conn    The <tt>WebSocket</tt> instance the message was received on.
+     * @param message The binary message that was received.
+     */
+    private void handle(@NotNull WebSocket conn, @NotNull ByteBuffer message) {
+        final Client client = getClient(conn);
+        debug("[Server] Received " + message.remaining() + " bytes from " +
+                (client != null ? client.getUUID() : conn.getRemoteSocketAddress()));
+        final BinaryReader reader = new BinaryReader(message);
         final Requests request;
+        final UUID uuid;
         try {
-            request = Requests.valueOf(req);
-        } catch (IllegalArgumentException ignored) {
+            request = Requests.fromOpcode(reader.readByte());
+            uuid = reader.readUUID();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            warning("[Server] Invalid message received.");
+            sendError(conn, null, ErrorResponse.BAD_REQUEST);
+            return;
+        }
+        if (request == null) {
             warning("[Server] Invalid message received.");
             sendError(conn, uuid, ErrorResponse.BAD_REQUEST);
             return;
         }
         try {
-            request.handle(jsonObject, conn);
-        } catch (NoSuchMethodException | InvocationTargetException | InstantiationException |
-                 IllegalAccessException e) {
-            warning("[Server] Failed to handle request.");
-            warning(e);
-            sendError(conn, uuid, ErrorResponse.INTERNAL_SERVER_ERROR);
+            request.handle(uuid, reader, conn);
         } catch (InvalidRequestException e) {
             sendError(conn, uuid, ErrorResponse.BAD_REQUEST);
         }
@@ -154,49 +407,43 @@ public class Server extends WebSocketServer {
      * @param conn      The <tt>WebSocket</tt> instance this event is occurring on.
      * @param handshake The handshake of the websocket instance
      */
-    @Override
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
-        Client client = new Client(getUniqueClientID());
+        final Client client = clients.register(uuid -> new Client(uuid, outboundExecutor, settings));
 
-        log(String.format("[Server] Incoming connection %s (%s, %s)", conn.getRemoteSocketAddress(), client.getUUID(), client.getName()));
+        log(String.format("[Server] Incoming connection %s (%s, %s, %s)", conn.getRemoteSocketAddress(), client.getUUID(),
+                client.getName(), WireProtocol.of(conn)));
 
-        clients.add(client);
         client.setSocket(conn);
-        conn.setAttachment(client.getUUID());
-
-        //Update caches
-        uuidClientMap.put(client.getUUID(), client);
-        webSocketClientMap.put(conn, client);
+        if (requestExecutor != null)
+            client.setInboundQueue(new InboundQueue(requestExecutor, settings.getMaxInFlightRequests()));
+        conn.setAttachment(client);
 
+        track(client);
         new HelloMessage(client.getUUID(), instanceUUID).send(conn);
         new ClientInfoMessage(client).send(conn);
     }
 
     /**
-     * @return A unique UUID in the space of client IDs.
-     */
-    @NotNull
-    private UUID getUniqueClientID() {
-        UUID uuid;
-        do {
-            uuid = UUID.randomUUID();
-        } while (uuidClientMap.containsKey(uuid));
-        return uuid;
-    }
-
-    /**
-     * Called when the server started up successfully.
+     * Called when a listener started up successfully. The periodic tasks are started with the first listener.
      * <p>
      * If any error occurred, onError is called instead.
+     *
+     * @param listener The listener that started.
      */
-    @Override
-    public void onStart() {
-        heartbeatTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                heartbeat();
-            }
-        }, 2500, 2500);
+    public void onStart(@NotNull Listener listener) {
+        log("[Server] Listening on " + listener.getAddress().getAddress().getHostAddress() + ":" + listener.getPort() +
+                ".");
+        if (!started.compareAndSet(false, true)) return;
+        heartbeatExecutor.scheduleAtFixedRate(this::tick, LIVENESS_TICK, LIVENESS_TICK, TimeUnit.MILLISECONDS);
+        log("[Server] Request threads: " + (requestExecutor == null ? "none, requests are handled inline." :
+                settings.getRequestThreads() + "."));
+        heartbeatExecutor.scheduleAtFixedRate(() -> debug("[Server] Requests: " + requestStats),
+                REQUEST_STATS_INTERVAL, REQUEST_STATS_INTERVAL, TimeUnit.MILLISECONDS);
+        if (settings.isCompression()) {
+            log("[Server] permessage-deflate enabled, threshold " + settings.getCompressionThreshold() + " bytes.");
+            heartbeatExecutor.scheduleAtFixedRate(() -> log("[Server] Compression: " + compressionStats),
+                    COMPRESSION_STATS_INTERVAL, COMPRESSION_STATS_INTERVAL, TimeUnit.MILLISECONDS);
+        }
 //        synchronized (clients) {
 //            for (int i = 0; i < 30; i++) {
 //                Client client = new Client(getUniqueClientID());
@@ -220,16 +467,47 @@ public class Server extends WebSocketServer {
     }
 
     /**
-     * Checks all connected clients for timeouts and sends heartbeat message to them.
+     * Advances the liveness wheel, only the clients due for a heartbeat are checked.
+     */
+    private void tick() {
+        try {
+            livenessWheel.tick(System.nanoTime(), this::heartbeat);
+        } catch (RuntimeException e) {
+            //An exception would cancel the periodic task
+            error("[Server] Exception in liveness tick");
+            error(e);
+        }
+    }
+
+    /**
+     * Schedules a connected client in the liveness wheel, unless it is already scheduled.
+     *
+     * @param client A connected client.
+     */
+    private void track(@NotNull Client client) {
+        if (client.startTracking())
+            livenessWheel.schedule(client, System.nanoTime() + HEARTBEAT_INTERVAL);
+    }
+
+    /**
+     * Checks a client for timeout and sends heartbeat message to it. A client that is no longer connected is removed
+     * from the liveness wheel until it connects again.
+     *
+     * @param client Client due for a heartbeat.
      */
-    private void heartbeat() {
-        synchronized (clients) {
-            clients.forEach(Client::checkTimeout);
-            clients.stream()
-                    .filter(client -> client.getClientState() == ClientState.CONNECTED &&
-                            client.getSocket() != null && client.getSocket().isOpen())
-                    .forEach(client -> new HeartbeatMessage().send(client.getSocket()));
+    private void heartbeat(@NotNull Client client) {
+        final long now = System.nanoTime();
+        client.checkTimeout(now);
+        final WebSocket socket = client.getSocket();
+        if (client.getClientState() == ClientState.CONNECTED && socket != null && socket.isOpen()) {
+            client.getOutboundQueue().offer(HEARTBEAT);
+            livenessWheel.schedule(client, now + HEARTBEAT_INTERVAL);
+            return;
         }
+        client.stopTracking();
+        //The client could have reconnected before it was marked as not tracked
+        if (client.getClientState() == ClientState.CONNECTED)
+            track(client);
     }
 
     /**
@@ -240,7 +518,7 @@ public class Server extends WebSocketServer {
      * @param reqID Request ID
      */
     public void changeClientID(UUID from, UUID to, UUID reqID) {
-        synchronized (clients) {
+        synchronized (reconnectLock) {
             final Client client = getClient(from);
             if (client == null) {
                 return;
@@ -260,17 +538,22 @@ public class Server extends WebSocketServer {
                 sendError(client.getSocket(), reqID, ErrorResponse.CLIENT_STILL_CONNECTED);
                 return;
             }
-            client.getSocket().setAttachment(to);
+            final WebSocket socket = client.getSocket();
+            socket.setAttachment(toClient);
+            //The queue belongs to the socket, so the requests stay in order
+            toClient.setInboundQueue(client.getInboundQueue());
 
             toClient.heartbeatReceived();
-            toClient.setSocket(client.getSocket());
-            toClient.setMessageID(client.getMessageID());
+            //No message of the old client is sent on the socket after its message IDs were handed over
+            synchronized (client.getLock()) {
+                client.setSocket(null);
+                toClient.setMessageID(client.getMessageID());
+            }
+            toClient.setSocket(socket);
+            track(toClient);
 
-            client.setSocket(null);
             removeClient(client);
 
-            webSocketClientMap.put(toClient.getSocket(), toClient);
-
             sendAck(toClient.getSocket(), reqID);
             new ClientInfoMessage(toClient).send(toClient.getSocket());
             log(String.format("[Server] Client %s is now known as %s.", client.getUUID(), toClient.getUUID()));
@@ -286,8 +569,6 @@ public class Server extends WebSocketServer {
         if (client == null) return;
         Makao.getInstance().getGameManager().onClientRemoved(client);
         clients.remove(client);
-        uuidClientMap.remove(client.getUUID());
-        webSocketClientMap.remove(client.getSocket());
     }
 
     /**
@@ -296,7 +577,7 @@ public class Server extends WebSocketServer {
      */
     @Nullable
     public Client getClient(@Nullable UUID clientID) {
-        return uuidClientMap.get(clientID);
+        return clients.get(clientID);
     }
 
     /**
@@ -310,10 +591,24 @@ public class Server extends WebSocketServer {
     }
 
     /**
-     * @return A list of all online clients.
+     * @return Immutable snapshot of all online clients.
      */
     public List<Client> getOnlineClients() {
-        return clients.stream().filter(client -> client.getClientState() == ClientState.CONNECTED)
-                .collect(Collectors.toList());
+        return clients.getOnlineClients();
+    }
+
+    /**
+     * @param topic A topic.
+     * @return Immutable snapshot of the online clients subscribed to the topic.
+     */
+    public List<Client> getSubscribers(@NotNull Topic topic) {
+        return clients.getSubscribers(topic);
+    }
+
+    /**
+     * @return Number of online clients.
+     */
+    public int getOnlineCount() {
+        return clients.getOnlineCount();
     }
 }
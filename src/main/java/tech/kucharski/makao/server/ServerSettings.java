@@ -0,0 +1,237 @@
+package tech.kucharski.makao.server;
+
+/**
+ * Settings of the server.
+ */
+public class ServerSettings {
+    private boolean compression = false;
+    private int compressionThreshold = 1024;
+    private int decoderThreads = Runtime.getRuntime().availableProcessors();
+    private int gameThreads = Runtime.getRuntime().availableProcessors();
+    private boolean inlineRequests = false;
+    private int listeners = 1;
+    private long lobbyUpdateWindow = 100;
+    private int maxInFlightRequests = 64;
+    private int outboundCapacity = 1024;
+    private int outboundHighWaterMark = 256;
+    private int outboundThreads = Runtime.getRuntime().availableProcessors();
+    private int requestThreads = Runtime.getRuntime().availableProcessors();
+    private long slowClientTimeout = 5000;
+
+    /**
+     * @return Minimum size of the message in bytes to be compressed.
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * @param compressionThreshold Minimum size of the message in bytes to be compressed.
+     * @return Self for chaining.
+     */
+    public ServerSettings setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = Math.max(0, compressionThreshold);
+        return this;
+    }
+
+    /**
+     * @return Whether permessage-deflate compression may be negotiated with the clients.
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * @param compression Whether permessage-deflate compression may be negotiated with the clients.
+     * @return Self for chaining.
+     */
+    public ServerSettings setCompression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * @return Number of threads decoding the frames received by each listener.
+     */
+    public int getDecoderThreads() {
+        return decoderThreads;
+    }
+
+    /**
+     * @param decoderThreads Number of threads decoding the frames received by each listener.
+     * @return Self for chaining.
+     */
+    public ServerSettings setDecoderThreads(int decoderThreads) {
+        this.decoderThreads = Math.max(1, decoderThreads);
+        return this;
+    }
+
+    /**
+     * @return Number of threads running the games, see {@link tech.kucharski.makao.game.GameLoops}.
+     */
+    public int getGameThreads() {
+        return gameThreads;
+    }
+
+    /**
+     * @param gameThreads Number of threads running the games, see {@link tech.kucharski.makao.game.GameLoops}.
+     * @return Self for chaining.
+     */
+    public ServerSettings setGameThreads(int gameThreads) {
+        this.gameThreads = Math.max(1, gameThreads);
+        return this;
+    }
+
+    /**
+     * @return Whether requests are handled on the WebSocket thread decoding them, instead of the request threads.
+     */
+    public boolean isInlineRequests() {
+        return inlineRequests;
+    }
+
+    /**
+     * @param inlineRequests Whether requests are handled on the WebSocket thread decoding them, instead of the request
+     *                       threads.
+     * @return Self for chaining.
+     */
+    public ServerSettings setInlineRequests(boolean inlineRequests) {
+        this.inlineRequests = inlineRequests;
+        return this;
+    }
+
+    /**
+     * @return Number of listeners accepting the connections, each with its own selector thread. More than one
+     * listener share the port with SO_REUSEPORT.
+     */
+    public int getListeners() {
+        return listeners;
+    }
+
+    /**
+     * @param listeners Number of listeners accepting the connections, each with its own selector thread. More than
+     *                  one listener share the port with SO_REUSEPORT.
+     * @return Self for chaining.
+     */
+    public ServerSettings setListeners(int listeners) {
+        this.listeners = Math.max(1, listeners);
+        return this;
+    }
+
+    /**
+     * @return Window in milliseconds over which the changes of the joinable games are collected and sent as one
+     * message, 0 to send every change immediately.
+     */
+    public long getLobbyUpdateWindow() {
+        return lobbyUpdateWindow;
+    }
+
+    /**
+     * @param lobbyUpdateWindow Window in milliseconds over which the changes of the joinable games are collected and
+     *                          sent as one message, 0 to send every change immediately.
+     * @return Self for chaining.
+     */
+    public ServerSettings setLobbyUpdateWindow(long lobbyUpdateWindow) {
+        this.lobbyUpdateWindow = Math.max(0, lobbyUpdateWindow);
+        return this;
+    }
+
+    /**
+     * @return Maximum number of requests of a connection received but not yet handled, further requests are rejected.
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * @param maxInFlightRequests Maximum number of requests of a connection received but not yet handled, further
+     *                            requests are rejected.
+     * @return Self for chaining.
+     */
+    public ServerSettings setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = Math.max(1, maxInFlightRequests);
+        return this;
+    }
+
+    /**
+     * @return Maximum number of messages waiting to be sent to a client, a client filling its queue is disconnected.
+     */
+    public int getOutboundCapacity() {
+        return outboundCapacity;
+    }
+
+    /**
+     * @param outboundCapacity Maximum number of messages waiting to be sent to a client, a client filling its queue
+     *                         is disconnected.
+     * @return Self for chaining.
+     */
+    public ServerSettings setOutboundCapacity(int outboundCapacity) {
+        this.outboundCapacity = Math.max(1, outboundCapacity);
+        return this;
+    }
+
+    /**
+     * @return Number of messages waiting to be sent to a client above which the client is considered slow.
+     */
+    public int getOutboundHighWaterMark() {
+        return outboundHighWaterMark;
+    }
+
+    /**
+     * @param outboundHighWaterMark Number of messages waiting to be sent to a client above which the client is
+     *                              considered slow.
+     * @return Self for chaining.
+     */
+    public ServerSettings setOutboundHighWaterMark(int outboundHighWaterMark) {
+        this.outboundHighWaterMark = Math.max(0, outboundHighWaterMark);
+        return this;
+    }
+
+    /**
+     * @return Number of threads sending messages to the clients.
+     */
+    public int getOutboundThreads() {
+        return outboundThreads;
+    }
+
+    /**
+     * @param outboundThreads Number of threads sending messages to the clients.
+     * @return Self for chaining.
+     */
+    public ServerSettings setOutboundThreads(int outboundThreads) {
+        this.outboundThreads = Math.max(1, outboundThreads);
+        return this;
+    }
+
+    /**
+     * @return Number of threads handling the requests, unless they are handled inline.
+     */
+    public int getRequestThreads() {
+        return requestThreads;
+    }
+
+    /**
+     * @param requestThreads Number of threads handling the requests, unless they are handled inline.
+     * @return Self for chaining.
+     */
+    public ServerSettings setRequestThreads(int requestThreads) {
+        this.requestThreads = Math.max(1, requestThreads);
+        return this;
+    }
+
+    /**
+     * @return How long in milliseconds a client may stay over its high-water mark before it is disconnected.
+     */
+    public long getSlowClientTimeout() {
+        return slowClientTimeout;
+    }
+
+    /**
+     * @param slowClientTimeout How long in milliseconds a client may stay over its high-water mark before it is
+     *                          disconnected.
+     * @return Self for chaining.
+     */
+    public ServerSettings setSlowClientTimeout(long slowClientTimeout) {
+        this.slowClientTimeout = Math.max(0, slowClientTimeout);
+        return this;
+    }
+}
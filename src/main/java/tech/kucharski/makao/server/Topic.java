@@ -0,0 +1,12 @@
+package tech.kucharski.makao.server;
+
+/**
+ * Topics of the messages sent to many clients. A client receives the messages of the topics it is subscribed to, see
+ * {@link Message#publish(Topic)}. Clients are subscribed to all topics when they connect.
+ */
+public enum Topic {
+    /**
+     * Changes of the list of joinable games.
+     */
+    LOBBY
+}
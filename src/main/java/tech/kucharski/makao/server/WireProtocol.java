@@ -0,0 +1,69 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.protocols.IProtocol;
+import org.java_websocket.protocols.Protocol;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Protocol used by a connection, selected with the WebSocket subprotocol during the handshake.
+ */
+public enum WireProtocol {
+    /**
+     * JSON text frames, used when the client does not ask for a subprotocol.
+     */
+    JSON(""),
+    /**
+     * Binary frames written with {@link tech.kucharski.makao.util.BinaryWriter}.
+     * <p>
+     * A request starts with the {@link Requests} ordinal as a byte and the request ID, followed by the data of the
+     * request. A message starts with the {@link Messages} ordinal as a byte and the message ID as an int, followed by
+     * the data of the message. Cards are sent as their indices in the deck of the game, the types of the cards are
+     * sent in the full state of the game.
+     */
+    BINARY("makao.bin");
+
+    /**
+     * Subprotocols offered during the handshake, the binary one is preferred if the client asks for it.
+     */
+    private static final List<IProtocol> PROTOCOLS = List.of(new Protocol(BINARY.name), new Protocol(JSON.name));
+    @NotNull
+    private final String name;
+
+    /**
+     * @param name Name of the subprotocol.
+     */
+    WireProtocol(@NotNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Subprotocols to be offered during the handshake.
+     */
+    @NotNull
+    public static List<IProtocol> getProtocols() {
+        return PROTOCOLS;
+    }
+
+    /**
+     * @param conn Socket of the client.
+     * @return Protocol negotiated by the socket, {@link #JSON} if there is no socket.
+     */
+    @NotNull
+    public static WireProtocol of(@Nullable WebSocket conn) {
+        if (conn == null) return JSON;
+        final IProtocol protocol = conn.getProtocol();
+        return protocol != null && BINARY.name.equals(protocol.getProvidedProtocol()) ? BINARY : JSON;
+    }
+
+    /**
+     * @return Name of the subprotocol.
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+}
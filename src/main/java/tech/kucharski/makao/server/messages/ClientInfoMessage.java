@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * Sent when client data changes.
@@ -31,4 +33,14 @@ public class ClientInfoMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.CLIENT_INFO);
+        out.writeUUID(client.getAvatar());
+        out.writeString(client.getName());
+    }
 }
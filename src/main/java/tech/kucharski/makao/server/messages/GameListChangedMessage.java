@@ -0,0 +1,71 @@
+package tech.kucharski.makao.server.messages;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.game.LobbyIndex;
+import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Changes of the list of joinable games collected over the lobby update window. Games that were added or updated are
+ * sent with their current state, copied from their serialized lobby entries, games that are no longer joinable are sent
+ * by their ID.
+ */
+public class GameListChangedMessage implements Message {
+    @NotNull
+    private final List<LobbyIndex.Entry> games;
+    @NotNull
+    private final List<UUID> removed;
+
+    /**
+     * @param games   Lobby entries of the games that were added or updated.
+     * @param removed IDs of the games that were removed.
+     */
+    public GameListChangedMessage(@NotNull List<LobbyIndex.Entry> games, @NotNull List<UUID> removed) {
+        this.games = games;
+        this.removed = removed;
+    }
+
+    /**
+     * @return JSON object
+     */
+    @Override
+    public JsonObject toJSONObject() {
+        return JsonParser.parseString(toJSONString()).getAsJsonObject();
+    }
+
+    /**
+     * @return JSON object serialized to a string, with the games copied from their lobby entries.
+     */
+    @NotNull
+    @Override
+    public String toJSONString() {
+        final StringBuilder json = new StringBuilder("{\"req\":\"GAME_LIST_CHANGED\",\"games\":[");
+        for (int i = 0; i < games.size(); i++) {
+            if (i > 0)
+                json.append(',');
+            json.append(games.get(i).json());
+        }
+        final JsonArray removed = new JsonArray();
+        this.removed.forEach(gameID -> removed.add(gameID.toString()));
+        return json.append("],\"removed\":").append(removed).append('}').toString();
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME_LIST_CHANGED);
+        out.writeShort(games.size());
+        games.forEach(entry -> out.writeBytes(entry.binary()));
+        out.writeShort(removed.size());
+        removed.forEach(out::writeUUID);
+    }
+}
@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * When a game was removed from the list.
@@ -30,4 +32,13 @@ public class GameRemovedMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME_LIST_REMOVED);
+        out.writeUUID(game.getGameID());
+    }
 }
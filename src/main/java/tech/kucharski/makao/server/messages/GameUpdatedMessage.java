@@ -3,7 +3,10 @@ package tech.kucharski.makao.server.messages;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.server.CoalescingKey;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * When new game was added to the list.
@@ -30,4 +33,22 @@ public class GameUpdatedMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME_LIST_UPDATED);
+        out.write(game);
+    }
+
+    /**
+     * @return Key superseding older game list messages of the game.
+     */
+    @NotNull
+    @Override
+    public CoalescingKey getCoalescingKey() {
+        return new CoalescingKey(Messages.GAME_LIST_UPDATED, game.getGameID());
+    }
 }
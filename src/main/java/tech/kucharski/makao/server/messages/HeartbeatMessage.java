@@ -1,7 +1,11 @@
 package tech.kucharski.makao.server.messages;
 
 import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.server.CoalescingKey;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * Message telling client that the server is still alive.
@@ -17,4 +21,21 @@ public class HeartbeatMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.HEARTBEAT);
+    }
+
+    /**
+     * @return Key superseding older heartbeat messages.
+     */
+    @NotNull
+    @Override
+    public CoalescingKey getCoalescingKey() {
+        return new CoalescingKey(Messages.HEARTBEAT, null);
+    }
 }
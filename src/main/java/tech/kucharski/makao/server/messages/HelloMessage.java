@@ -3,6 +3,8 @@ package tech.kucharski.makao.server.messages;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 import java.util.UUID;
 
@@ -36,4 +38,14 @@ public class HelloMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.HELLO);
+        out.writeUUID(clientID);
+        out.writeUUID(serverID);
+    }
 }
@@ -0,0 +1,88 @@
+package tech.kucharski.makao.server.messages.game;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.Player;
+import tech.kucharski.makao.game.deck.Deck;
+import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * When a player played cards onto the discard pile or drew cards. The drawn cards are only sent to the player.
+ */
+public class CardsMovedMessage implements Message {
+    private final int cardsRemaining;
+    private final int drawn;
+    @NotNull
+    private final Game game;
+    @NotNull
+    private final List<UUID> played;
+    @NotNull
+    private final UUID player;
+    /**
+     * State version of the game after the change.
+     */
+    private final long version;
+
+    /**
+     * @param game   A game
+     * @param player Player that played or drew the cards.
+     * @param played Cards played, in the order they were played.
+     * @param drawn  Number of cards drawn.
+     */
+    public CardsMovedMessage(@NotNull Game game, @NotNull Player player, @NotNull List<UUID> played, int drawn) {
+        this.game = game;
+        this.player = player.getUUID();
+        this.played = played;
+        this.drawn = drawn;
+        this.cardsRemaining = player.getCardsRemaining();
+        this.version = game.getStateVersion();
+    }
+
+    /**
+     * @return JSON object
+     */
+    @Override
+    public JsonObject toJSONObject() {
+        JsonObject response = new JsonObject();
+        response.addProperty("req", "GAME.CARDS_MOVED");
+        response.addProperty("id", game.getGameID().toString());
+        response.addProperty("version", version);
+
+        response.addProperty("player", player.toString());
+
+        JsonArray played = new JsonArray();
+        this.played.forEach(uuid -> played.add(uuid.toString()));
+
+        response.add("played", played);
+        response.addProperty("drawn", drawn);
+        response.addProperty("cardsRemaining", cardsRemaining);
+
+        return response;
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__CARDS_MOVED);
+        out.writeUUID(game.getGameID());
+        out.writeLong(version);
+        out.writeUUID(player);
+        final Deck deck = game.getDeck();
+        if (deck != null) {
+            deck.writeCardIndices(out, played);
+        } else {
+            out.writeShort(0);
+        }
+        out.writeShort(drawn);
+        out.writeShort(cardsRemaining);
+    }
+}
@@ -3,20 +3,38 @@ package tech.kucharski.makao.server.messages.game;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.deck.Deck;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
- * When a card was played.
+ * When a card was played or drawn. Carries the sizes of the piles and only the top cards of the discard pile, the whole
+ * pile is sent in response to {@code GAME.DISCARD_PILE}.
+ * <p>
+ * A versioned delta like the other broadcasts of a game, see {@link Game#getStateVersion()}: it follows the
+ * {@code GAME.CARDS_MOVED} of the same play or draw with the next version and replaces the view of the piles of the
+ * client. It is never coalesced, so the versions a client receives keep increasing.
  */
 public class DeckUpdatedMessage implements Message {
+    /**
+     * Maximum number of cards from the top of the discard pile.
+     */
+    public static final int TOP_CARDS = 5;
     @NotNull
     private final Game game;
+    /**
+     * State version of the game after the change.
+     */
+    private final long version;
 
     /**
-     * @param game A game that was added.
+     * @param game Game whose deck changed, the message carries its current state version and the sizes of its piles
+     *             with the {@value #TOP_CARDS} top cards of the discard pile.
      */
     public DeckUpdatedMessage(@NotNull Game game) {
         this.game = game;
+        this.version = game.getStateVersion();
     }
 
     /**
@@ -27,13 +45,28 @@ public class DeckUpdatedMessage implements Message {
         JsonObject response = new JsonObject();
         response.addProperty("req", "GAME.DECK_UPDATED");
         response.addProperty("id", game.getGameID().toString());
+        response.addProperty("version", version);
 
         if (game.getDeck() != null) {
-            response.add("deck", game.getDeck().toSimpleJSONObject());
+            response.add("deck", game.getDeck().toSimpleJSONObject(TOP_CARDS));
         } else {
             response.add("deck", null);
         }
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__DECK_UPDATED);
+        out.writeUUID(game.getGameID());
+        out.writeLong(version);
+        final Deck deck = game.getDeck();
+        out.writeBoolean(deck != null);
+        if (deck != null)
+            deck.writeSimpleBinary(out, TOP_CARDS);
+    }
 }
@@ -4,9 +4,12 @@ import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
- * When game was changed.
+ * Full snapshot of a game, carrying the state version it was taken at. It is never coalesced, a newer snapshot moved
+ * behind deltas would make the versions a client receives go backwards or show false gaps.
  */
 public class GameStateChangedMessage implements Message {
     @NotNull
@@ -32,4 +35,14 @@ public class GameStateChangedMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__GAME_STATE_CHANGED);
+        out.writeUUID(game.getGameID());
+        game.writeFullBinary(out);
+    }
 }
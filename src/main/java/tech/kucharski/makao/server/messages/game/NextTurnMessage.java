@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * When game turn advanced.
@@ -11,12 +13,17 @@ import tech.kucharski.makao.server.Message;
 public class NextTurnMessage implements Message {
     @NotNull
     private final Game game;
+    /**
+     * State version of the game after the change.
+     */
+    private final long version;
 
     /**
      * @param game A game that was added.
      */
     public NextTurnMessage(@NotNull Game game) {
         this.game = game;
+        this.version = game.getStateVersion();
     }
 
     /**
@@ -27,9 +34,21 @@ public class NextTurnMessage implements Message {
         JsonObject response = new JsonObject();
         response.addProperty("req", "GAME.NEXT_TURN");
         response.addProperty("id", game.getGameID().toString());
+        response.addProperty("version", version);
 
         response.addProperty("turnOf", game.getTurn().toString());
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__NEXT_TURN);
+        out.writeUUID(game.getGameID());
+        out.writeUUID(game.getTurn());
+        out.writeLong(version);
+    }
 }
@@ -0,0 +1,58 @@
+package tech.kucharski.makao.server.messages.game;
+
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.GamePhase;
+import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
+
+/**
+ * When the phase of a game changed.
+ */
+public class PhaseChangedMessage implements Message {
+    @NotNull
+    private final Game game;
+    @NotNull
+    private final GamePhase phase;
+    /**
+     * State version of the game after the change.
+     */
+    private final long version;
+
+    /**
+     * @param game A game that changed its phase.
+     */
+    public PhaseChangedMessage(@NotNull Game game) {
+        this.game = game;
+        this.phase = game.getGameState();
+        this.version = game.getStateVersion();
+    }
+
+    /**
+     * @return JSON object
+     */
+    @Override
+    public JsonObject toJSONObject() {
+        JsonObject response = new JsonObject();
+        response.addProperty("req", "GAME.PHASE_CHANGED");
+        response.addProperty("id", game.getGameID().toString());
+        response.addProperty("version", version);
+
+        response.addProperty("phase", phase.name());
+
+        return response;
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__PHASE_CHANGED);
+        out.writeUUID(game.getGameID());
+        out.writeLong(version);
+        out.writeEnum(phase);
+    }
+}
@@ -0,0 +1,80 @@
+package tech.kucharski.makao.server.messages.game;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.deck.Deck;
+import tech.kucharski.makao.game.deck.PlayableCards;
+import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cards the player whose turn it is can play, sent to that player only.
+ */
+public class PlayableCardsMessage implements Message {
+    @NotNull
+    private final Game game;
+    @NotNull
+    private final PlayableCards playable;
+
+    /**
+     * @param game     A game
+     * @param playable Cards the player can play.
+     */
+    public PlayableCardsMessage(@NotNull Game game, @NotNull PlayableCards playable) {
+        this.game = game;
+        this.playable = playable;
+    }
+
+    /**
+     * @param uuids UUIDs of cards.
+     * @return JSON array of the UUIDs.
+     */
+    @NotNull
+    private static JsonArray toJSONArray(@NotNull List<UUID> uuids) {
+        final JsonArray array = new JsonArray();
+        uuids.forEach(uuid -> array.add(uuid.toString()));
+        return array;
+    }
+
+    /**
+     * @return JSON object
+     */
+    @Override
+    public JsonObject toJSONObject() {
+        JsonObject response = new JsonObject();
+        response.addProperty("req", "GAME.PLAYABLE_CARDS");
+        response.addProperty("id", game.getGameID().toString());
+        response.add("cards", toJSONArray(playable.cards()));
+
+        JsonArray combinations = new JsonArray();
+        playable.combinations().forEach(cards -> combinations.add(toJSONArray(cards)));
+
+        response.add("combinations", combinations);
+
+        return response;
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__PLAYABLE_CARDS);
+        out.writeUUID(game.getGameID());
+        final Deck deck = game.getDeck();
+        if (deck != null) {
+            deck.writeCardIndices(out, playable.cards());
+            out.writeShort(playable.combinations().size());
+            playable.combinations().forEach(cards -> deck.writeCardIndices(out, cards));
+        } else {
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+    }
+}
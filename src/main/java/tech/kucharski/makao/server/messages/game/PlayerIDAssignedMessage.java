@@ -5,6 +5,8 @@ import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.game.Player;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * When player got assigned an ID.
@@ -37,4 +39,14 @@ public class PlayerIDAssignedMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__PLAYER_ID_ASSIGNED);
+        out.writeUUID(game.getGameID());
+        out.write(player);
+    }
 }
@@ -5,6 +5,8 @@ import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.game.Player;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 /**
  * When a player joined a game.
@@ -12,6 +14,10 @@ import tech.kucharski.makao.server.Message;
 public class PlayerJoinedMessage implements Message {
     @NotNull
     private final Game game;
+    /**
+     * State version of the game after the change.
+     */
+    private final long version;
     @NotNull
     private final Player player;
 
@@ -21,6 +27,7 @@ public class PlayerJoinedMessage implements Message {
      */
     public PlayerJoinedMessage(@NotNull Game game, @NotNull Player player) {
         this.game = game;
+        this.version = game.getStateVersion();
         this.player = player;
     }
 
@@ -32,9 +39,21 @@ public class PlayerJoinedMessage implements Message {
         JsonObject response = new JsonObject();
         response.addProperty("req", "GAME.PLAYER_JOINED");
         response.addProperty("id", game.getGameID().toString());
+        response.addProperty("version", version);
 
         response.add("player", player.toJSONObject());
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__PLAYER_JOINED);
+        out.writeUUID(game.getGameID());
+        out.write(player);
+        out.writeLong(version);
+    }
 }
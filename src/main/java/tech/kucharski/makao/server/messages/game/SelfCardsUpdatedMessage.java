@@ -4,7 +4,10 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.deck.Deck;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 import java.util.List;
 import java.util.UUID;
@@ -43,4 +46,19 @@ public class SelfCardsUpdatedMessage implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__SELF_CARDS_UPDATED);
+        out.writeUUID(game.getGameID());
+        final Deck deck = game.getDeck();
+        if (deck != null) {
+            deck.writeCardIndices(out, cards);
+        } else {
+            out.writeShort(0);
+        }
+    }
 }
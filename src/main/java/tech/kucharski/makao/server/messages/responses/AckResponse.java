@@ -1,7 +1,10 @@
 package tech.kucharski.makao.server.messages.responses;
 
 import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 import javax.annotation.Nullable;
 import java.util.UUID;
@@ -31,4 +34,13 @@ public class AckResponse implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.ACK);
+        out.writeUUID(requestUUID);
+    }
 }
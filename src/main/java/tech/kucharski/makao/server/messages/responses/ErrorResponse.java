@@ -3,8 +3,11 @@ package tech.kucharski.makao.server.messages.responses;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -31,6 +34,15 @@ public class ErrorResponse implements Message {
      * Not found error code
      */
     public static final String NOT_FOUND = "NOT_FOUND";
+    /**
+     * Too many requests in flight error code
+     */
+    public static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
+    /**
+     * Error codes by their index in the binary protocol. New codes must be added at the end.
+     */
+    private static final List<String> CODES = List.of(BAD_REQUEST, CLIENT_STILL_CONNECTED, FORBIDDEN,
+            INTERNAL_SERVER_ERROR, NOT_FOUND, TOO_MANY_REQUESTS);
     @NotNull
     private final String error;
     @Nullable
@@ -57,4 +69,25 @@ public class ErrorResponse implements Message {
 
         return response;
     }
+
+    /**
+     * @return Index of the error code in the binary protocol.
+     * @throws IllegalStateException When the error code is unknown.
+     */
+    private int getCode() throws IllegalStateException {
+        final int code = CODES.indexOf(error);
+        if (code == -1)
+            throw new IllegalStateException("Unknown error code " + error + ".");
+        return code;
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.ERROR);
+        out.writeUUID(requestUUID);
+        out.writeByte(getCode());
+    }
 }
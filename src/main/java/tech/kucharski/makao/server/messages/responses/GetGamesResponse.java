@@ -3,28 +3,30 @@ package tech.kucharski.makao.server.messages.responses;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
-import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.LobbyIndex;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
- * Response for {@link tech.kucharski.makao.server.requests.GetGamesRequest}.
+ * Response for {@link tech.kucharski.makao.server.requests.GetGamesRequest}. The games are copied from the serialized
+ * entries of the lobby.
  */
 public class GetGamesResponse implements Message {
     @NotNull
-    private final List<Game> games;
+    private final LobbyIndex.Snapshot lobby;
     @NotNull
     private final UUID requestUUID;
 
     /**
      * @param requestUUID UUID of request this response is to.
-     * @param games       List of games.
+     * @param lobby       Joinable games.
      */
-    public GetGamesResponse(@NotNull UUID requestUUID, @NotNull List<Game> games) {
+    public GetGamesResponse(@NotNull UUID requestUUID, @NotNull LobbyIndex.Snapshot lobby) {
         this.requestUUID = requestUUID;
-        this.games = games;
+        this.lobby = lobby;
     }
 
     /**
@@ -37,10 +39,29 @@ public class GetGamesResponse implements Message {
         response.addProperty("req", requestUUID.toString());
 
         final JsonArray games = new JsonArray();
-        this.games.forEach(game -> games.add(game.toJSONObject()));
+        lobby.games().forEach(game -> games.add(game.toJSONObject()));
 
         response.add("games", games);
 
         return response;
     }
+
+    /**
+     * @return {@link #toJSONObject()} serialized to a string, with the games copied from the lobby.
+     */
+    @NotNull
+    @Override
+    public String toJSONString() {
+        return "{\"success\":true,\"req\":\"" + requestUUID + "\",\"games\":" + lobby.json() + "}";
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GET_GAMES);
+        out.writeUUID(requestUUID);
+        out.writeBytes(lobby.binary());
+    }
 }
@@ -0,0 +1,68 @@
+package tech.kucharski.makao.server.messages.responses.game;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.deck.Deck;
+import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.util.UUID;
+
+/**
+ * Response for {@link tech.kucharski.makao.server.requests.game.DiscardPileRequest}.
+ */
+public class DiscardPileResponse implements Message {
+    @NotNull
+    private final Game game;
+    @NotNull
+    private final UUID requestUUID;
+    /**
+     * State version of the game the pile is at.
+     */
+    private final long version;
+
+    /**
+     * @param requestUUID UUID of request this response is to.
+     * @param game        A game
+     */
+    public DiscardPileResponse(@NotNull UUID requestUUID, @NotNull Game game) {
+        this.requestUUID = requestUUID;
+        this.game = game;
+        this.version = game.getStateVersion();
+    }
+
+    /**
+     * @return JSON object
+     */
+    @Override
+    public JsonObject toJSONObject() {
+        JsonObject response = new JsonObject();
+        response.addProperty("success", true);
+        response.addProperty("req", requestUUID.toString());
+        response.addProperty("version", version);
+
+        final Deck deck = game.getDeck();
+        response.add("discardedCards", deck != null ? deck.toDiscardedJSON() : new JsonArray());
+
+        return response;
+    }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__DISCARD_PILE);
+        out.writeUUID(requestUUID);
+        out.writeLong(version);
+        final Deck deck = game.getDeck();
+        if (deck != null) {
+            deck.writeDiscardedBinary(out);
+        } else {
+            out.writeShort(0);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.google.gson.JsonObject;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.server.Message;
+import tech.kucharski.makao.server.Messages;
+import tech.kucharski.makao.util.BinaryWriter;
 
 import java.util.List;
 import java.util.UUID;
@@ -42,4 +44,15 @@ public class ListResponse implements Message {
 
         return response;
     }
+
+    /**
+     * @param out Writer the message shall be written to.
+     */
+    @Override
+    public void writeBinary(@NotNull BinaryWriter out) {
+        out.writeEnum(Messages.GAME__LIST);
+        out.writeUUID(requestUUID);
+        out.writeShort(games.size());
+        games.forEach(out::write);
+    }
 }
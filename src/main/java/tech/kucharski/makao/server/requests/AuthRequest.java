@@ -4,39 +4,53 @@ import com.google.gson.JsonObject;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.UUID;
 
 /**
  * Changes ID of the client after reconnect.
+ *
+ * @param clientID Client ID to take over
+ * @param reqID    Request ID
  */
-public class AuthRequest implements Request {
-    private final UUID clientID;
-    private final UUID reqID;
+public record AuthRequest(@NotNull UUID clientID, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<UUID> CLIENT_ID = MessageSchema.uuid("clientID");
+    private static final MessageSchema SCHEMA = new MessageSchema(CLIENT_ID, REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public AuthRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("clientID", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static AuthRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.clientID = UUID.fromString(jsonObject.get("clientID").getAsJsonPrimitive().getAsString());
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new AuthRequest(values.get(CLIENT_ID), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static AuthRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in) throws BufferUnderflowException,
+            IllegalArgumentException {
+        return new AuthRequest(in.readUUID(), reqID);
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
-        Makao.getInstance().getServer().changeClientID(socket.getAttachment(), clientID, reqID);
+        Makao.getInstance().getServer().changeClientID(socket.<Client>getAttachment().getUUID(), clientID, reqID);
     }
 }
@@ -9,42 +9,51 @@ import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.ClientInfoMessage;
-import tech.kucharski.makao.server.messages.GameUpdatedMessage;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
 import java.util.UUID;
 
 /**
  * Asks the server to change the avatar of the user.
+ *
+ * @param reqID Request ID
  */
-public class ChangeAvatarRequest implements Request {
-    private final UUID reqID;
+public record ChangeAvatarRequest(@NotNull UUID reqID) implements Request {
+    private static final MessageSchema SCHEMA = new MessageSchema(REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public ChangeAvatarRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static ChangeAvatarRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new ChangeAvatarRequest(values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID   Request ID
+     * @param ignored Request data
+     * @return A request
+     */
+    @NotNull
+    public static ChangeAvatarRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader ignored) {
+        return new ChangeAvatarRequest(reqID);
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
-        final Client client = Makao.getInstance().getServer().getClient(socket.<UUID>getAttachment());
+        final Client client = Makao.getInstance().getServer().getClient(socket);
         if (client != null) {
             client.setAvatar(UUID.randomUUID());
             new ClientInfoMessage(client).send(client.getSocket());
             Makao.getInstance().getGameManager().getClientGames(client.getUUID()).stream()
                     .filter(game -> game.getGameState() == GamePhase.PREPARING)
-                    .forEach(game -> new GameUpdatedMessage(game).broadcast());
+                    .forEach(game -> game.execute(game::sendLobbyUpdate));
             Makao.getInstance().getServer().sendAck(socket, reqID);
         }
     }
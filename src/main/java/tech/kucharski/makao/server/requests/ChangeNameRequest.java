@@ -9,45 +9,57 @@ import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.ClientInfoMessage;
-import tech.kucharski.makao.server.messages.GameUpdatedMessage;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.UUID;
 
 /**
  * Asks the server to change the name of the user.
+ *
+ * @param name  New name
+ * @param reqID Request ID
  */
-public class ChangeNameRequest implements Request {
-    private final String name;
-    private final UUID reqID;
+public record ChangeNameRequest(@NotNull String name, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<String> NAME = MessageSchema.string("name");
+    private static final MessageSchema SCHEMA = new MessageSchema(NAME, REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public ChangeNameRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("name", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static ChangeNameRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.name = jsonObject.get("name").getAsJsonPrimitive().getAsString();
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new ChangeNameRequest(values.get(NAME), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static ChangeNameRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in) throws BufferUnderflowException,
+            IllegalArgumentException {
+        return new ChangeNameRequest(in.readString(), reqID);
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
-        final Client client = Makao.getInstance().getServer().getClient(socket.<UUID>getAttachment());
+        final Client client = Makao.getInstance().getServer().getClient(socket);
         if (client != null) {
             client.setName(name);
             new ClientInfoMessage(client).send(client.getSocket());
             Makao.getInstance().getGameManager().getClientGames(client.getUUID()).stream()
                     .filter(game -> game.getGameState() == GamePhase.PREPARING)
-                    .forEach(game -> new GameUpdatedMessage(game).broadcast());
+                    .forEach(game -> game.execute(game::sendLobbyUpdate));
             Makao.getInstance().getServer().sendAck(socket, reqID);
         }
     }
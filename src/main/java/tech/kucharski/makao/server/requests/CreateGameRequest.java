@@ -4,10 +4,13 @@ import com.google.gson.JsonObject;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.game.exceptions.PlayerInGameException;
+import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
 import java.util.UUID;
 
@@ -15,35 +18,46 @@ import static tech.kucharski.makao.server.messages.responses.ErrorResponse.FORBI
 
 /**
  * Creates a new game.
+ *
+ * @param reqID Request ID
  */
-public class CreateGameRequest implements Request {
-    private final UUID reqID;
+public record CreateGameRequest(@NotNull UUID reqID) implements Request {
+    private static final MessageSchema SCHEMA = new MessageSchema(REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public CreateGameRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static CreateGameRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new CreateGameRequest(values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID   Request ID
+     * @param ignored Request data
+     * @return A request
+     */
+    @NotNull
+    public static CreateGameRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader ignored) {
+        return new CreateGameRequest(reqID);
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
         //Currently a player is limited to being in one game at a time
+        final Game game;
         try {
-            Makao.getInstance().getGameManager().createGame(socket.getAttachment());
+            game = Makao.getInstance().getGameManager().createGame(socket.<Client>getAttachment().getUUID());
         } catch (PlayerInGameException e) {
             Makao.getInstance().getServer().sendError(socket, reqID, FORBIDDEN);
             return;
         }
-        Makao.getInstance().getServer().sendAck(socket, reqID);
+        //Acknowledged after the client joined the game
+        game.execute(() -> Makao.getInstance().getServer().sendAck(socket, reqID));
     }
 }
@@ -7,34 +7,44 @@ import tech.kucharski.makao.Makao;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.GetGamesResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
 import java.util.UUID;
 
 /**
  * Lists all games.
+ *
+ * @param reqID Request ID
  */
-public class GetGamesRequest implements Request {
-    private final UUID reqID;
+public record GetGamesRequest(@NotNull UUID reqID) implements Request {
+    private static final MessageSchema SCHEMA = new MessageSchema(REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public GetGamesRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static GetGamesRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new GetGamesRequest(values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID   Request ID
+     * @param ignored Request data
+     * @return A request
+     */
+    @NotNull
+    public static GetGamesRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader ignored) {
+        return new GetGamesRequest(reqID);
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
-        new GetGamesResponse(reqID, Makao.getInstance().getGameManager().getJoinableGames()).send(socket);
+        new GetGamesResponse(reqID, Makao.getInstance().getGameManager().getLobby().getSnapshot()).send(socket);
     }
 }
@@ -6,22 +6,41 @@ import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.Makao;
 import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.Request;
+import tech.kucharski.makao.util.BinaryReader;
 
 import java.util.UUID;
 
 /**
  * Tells the server that client is still alive.
  */
-public class HeartbeatRequest implements Request {
+public record HeartbeatRequest() implements Request {
+    /**
+     * The request carries no data, so a single instance is shared.
+     */
+    private static final HeartbeatRequest INSTANCE = new HeartbeatRequest();
+
     /**
      * @param ignored Request data
+     * @return A request
+     */
+    @NotNull
+    public static HeartbeatRequest fromJSON(@NotNull JsonObject ignored) {
+        return INSTANCE;
+    }
+
+    /**
+     * @param ignored     Request ID
+     * @param ignoredData Request data
+     * @return A request
      */
-    public HeartbeatRequest(JsonObject ignored) {
+    @NotNull
+    public static HeartbeatRequest fromBinary(@NotNull UUID ignored, @NotNull BinaryReader ignoredData) {
+        return INSTANCE;
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
-        final Client client = Makao.getInstance().getServer().getClient(socket.<UUID>getAttachment());
+        final Client client = Makao.getInstance().getServer().getClient(socket);
         if (client != null) {
             client.heartbeatReceived();
         }
@@ -0,0 +1,71 @@
+package tech.kucharski.makao.server.requests.game;
+
+import com.google.gson.JsonObject;
+import org.java_websocket.WebSocket;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.server.Client;
+import tech.kucharski.makao.server.InvalidRequestException;
+import tech.kucharski.makao.server.Request;
+import tech.kucharski.makao.server.messages.responses.ErrorResponse;
+import tech.kucharski.makao.server.messages.responses.game.DiscardPileResponse;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
+
+import java.nio.BufferUnderflowException;
+import java.util.UUID;
+
+/**
+ * Sends the whole discard pile of a game to a client taking part in it.
+ *
+ * @param gameID Game ID
+ * @param reqID  Request ID
+ */
+public record DiscardPileRequest(@NotNull UUID gameID, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<UUID> GAME_ID = MessageSchema.uuid("gameID");
+    private static final MessageSchema SCHEMA = new MessageSchema(GAME_ID, REQUEST_ID);
+
+    /**
+     * @param jsonObject Request data
+     * @return A request
+     * @throws InvalidRequestException When data is invalid.
+     */
+    @NotNull
+    public static DiscardPileRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
+            throw new InvalidRequestException();
+        return new DiscardPileRequest(values.get(GAME_ID), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static DiscardPileRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in)
+            throws BufferUnderflowException, IllegalArgumentException {
+        return new DiscardPileRequest(in.readUUID(), reqID);
+    }
+
+    @Override
+    public void handle(@NotNull WebSocket socket) {
+        final Game game = Makao.getInstance().getGameManager().getGame(gameID);
+        if (game == null) {
+            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
+            return;
+        }
+        final UUID clientID = socket.<Client>getAttachment().getUUID();
+        game.execute(() -> {
+            if (!game.hasClient(clientID)) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
+                return;
+            }
+            new DiscardPileResponse(reqID, game).send(socket);
+        });
+    }
+}
@@ -10,32 +10,46 @@ import tech.kucharski.makao.game.exceptions.WrongTurnException;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.ErrorResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.UUID;
 
 /**
  * Draws a card in a game.
+ *
+ * @param playerID Player ID
+ * @param reqID    Request ID
  */
-public class DrawCardRequest implements Request {
-    private final UUID reqID, playerID;
+public record DrawCardRequest(@NotNull UUID playerID, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<UUID> PLAYER_ID = MessageSchema.uuid("playerID");
+    private static final MessageSchema SCHEMA = new MessageSchema(PLAYER_ID, REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public DrawCardRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("playerID", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static DrawCardRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-            this.playerID = UUID.fromString(jsonObject.get("playerID").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new DrawCardRequest(values.get(PLAYER_ID), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static DrawCardRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in) throws BufferUnderflowException,
+            IllegalArgumentException {
+        return new DrawCardRequest(in.readUUID(), reqID);
     }
 
     @Override
@@ -45,13 +59,15 @@ public class DrawCardRequest implements Request {
             Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
             return;
         }
-        try {
-            game.drawCard(playerID);
-            Makao.getInstance().getServer().sendAck(socket, reqID);
-        } catch (WrongTurnException | IllegalStateException e) {
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
-        } catch (PlayerNotFoundException e) {
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
-        }
+        game.execute(() -> {
+            try {
+                game.drawCard(playerID);
+                Makao.getInstance().getServer().sendAck(socket, reqID);
+            } catch (WrongTurnException | IllegalStateException e) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
+            } catch (PlayerNotFoundException e) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
+            }
+        });
     }
 }
@@ -5,35 +5,50 @@ import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.Makao;
 import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.ErrorResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.UUID;
 
 /**
  * Makes player join a game.
+ *
+ * @param gameID Game ID
+ * @param reqID  Request ID
  */
-public class JoinRequest implements Request {
-    private final UUID reqID, gameID;
+public record JoinRequest(@NotNull UUID gameID, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<UUID> GAME_ID = MessageSchema.uuid("gameID");
+    private static final MessageSchema SCHEMA = new MessageSchema(GAME_ID, REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public JoinRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("gameID", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static JoinRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-            this.gameID = UUID.fromString(jsonObject.get("gameID").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new JoinRequest(values.get(GAME_ID), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static JoinRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in) throws BufferUnderflowException,
+            IllegalArgumentException {
+        return new JoinRequest(in.readUUID(), reqID);
     }
 
     @Override
@@ -43,16 +58,21 @@ public class JoinRequest implements Request {
             Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
             return;
         }
-        if (game.hasClient(socket.getAttachment())) {
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
-            return;
-        }
-        try {
-            game.addPlayer(socket.getAttachment());
-        } catch (IllegalStateException e) {
+        final UUID clientID = socket.<Client>getAttachment().getUUID();
+        //A client is limited to one unfinished game, including the one it joins
+        if (!Makao.getInstance().getGameManager().reserve(clientID, game)) {
             Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
             return;
         }
-        Makao.getInstance().getServer().sendAck(socket, reqID);
+        game.execute(() -> {
+            try {
+                game.addPlayer(clientID);
+            } catch (IllegalStateException e) {
+                Makao.getInstance().getGameManager().release(clientID, game);
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
+                return;
+            }
+            Makao.getInstance().getServer().sendAck(socket, reqID);
+        });
     }
 }
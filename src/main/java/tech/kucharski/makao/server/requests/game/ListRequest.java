@@ -4,37 +4,49 @@ import com.google.gson.JsonObject;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.game.ListResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
 import java.util.UUID;
 
 /**
  * Lists all games the client takes part in.
+ *
+ * @param reqID Request ID
  */
-public class ListRequest implements Request {
-    private final UUID reqID;
+public record ListRequest(@NotNull UUID reqID) implements Request {
+    private static final MessageSchema SCHEMA = new MessageSchema(REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public ListRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static ListRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new ListRequest(values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID   Request ID
+     * @param ignored Request data
+     * @return A request
+     */
+    @NotNull
+    public static ListRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader ignored) {
+        return new ListRequest(reqID);
     }
 
     @Override
     public void handle(@NotNull WebSocket socket) {
-        new ListResponse(reqID, Makao.getInstance().getGameManager().getClientGames(socket.getAttachment())).send(socket);
+        final UUID clientID = socket.<Client>getAttachment().getUUID();
+        new ListResponse(reqID, Makao.getInstance().getGameManager().getClientGames(clientID)).send(socket);
     }
 }
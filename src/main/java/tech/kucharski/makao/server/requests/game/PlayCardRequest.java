@@ -1,12 +1,13 @@
 package tech.kucharski.makao.server.requests.game;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import tech.kucharski.makao.Makao;
 import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.game.deck.Card;
+import tech.kucharski.makao.game.deck.Deck;
 import tech.kucharski.makao.game.exceptions.CardNotFoundException;
 import tech.kucharski.makao.game.exceptions.InvalidCardException;
 import tech.kucharski.makao.game.exceptions.PlayerNotFoundException;
@@ -14,9 +15,12 @@ import tech.kucharski.makao.game.exceptions.WrongTurnException;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.ErrorResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,40 +28,66 @@ import static tech.kucharski.makao.util.Logger.log;
 
 /**
  * Plays a card in a game.
+ *
+ * @param cards    Cards to be played
+ * @param reqID    Request ID
+ * @param playerID Player ID
+ * @param request  Requested value (for supported cards)
  */
-public class PlayCardRequest implements Request {
-    private final List<UUID> cards;
-    private final UUID reqID, playerID;
-    private final String request;
+public record PlayCardRequest(@NotNull List<UUID> cards, @NotNull UUID reqID, @NotNull UUID playerID,
+                              @Nullable String request) implements Request {
+    private static final MessageSchema.Field<List<UUID>> CARDS = MessageSchema.uuidArray("cards");
+    private static final MessageSchema.Field<UUID> PLAYER_ID = MessageSchema.uuid("playerID");
+    private static final MessageSchema.Field<String> REQUEST = MessageSchema.nullableString("request");
+    private static final MessageSchema SCHEMA = new MessageSchema(CARDS, REQUEST_ID, PLAYER_ID, REQUEST);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public PlayCardRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requireArray("cards", false)
-                .requirePrimitive("uuid", false)
-                .requirePrimitive("playerID", false)
-                .requirePrimitive("request", true)
-                .validate(jsonObject)) {
+    @NotNull
+    public static PlayCardRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        }
+        return new PlayCardRequest(values.get(CARDS), values.get(REQUEST_ID), values.get(PLAYER_ID),
+                values.get(REQUEST));
+    }
+
+    /**
+     * Cards are sent as their indices in the deck of the game of the player.
+     *
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws InvalidRequestException  When a card index is not a part of the deck.
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static PlayCardRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in)
+            throws InvalidRequestException, BufferUnderflowException, IllegalArgumentException {
+        final UUID playerID = in.readUUID();
+        final int count = in.readByte();
+        final int[] indices = new int[count];
+        for (int i = 0; i < count; i++)
+            indices[i] = in.readShort();
+        final String request = in.readNullableString();
 
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-            this.playerID = UUID.fromString(jsonObject.get("playerID").getAsJsonPrimitive().getAsString());
-            final JsonArray cards = jsonObject.get("cards").getAsJsonArray();
-            final List<UUID> cardUUIDs = new ArrayList<>();
-            for (JsonElement element : cards) {
-                cardUUIDs.add(UUID.fromString(element.getAsString()));
+        //Unknown game is reported by handle()
+        final Game game = Makao.getInstance().getGameManager().getGameByPlayerID(playerID);
+        final List<UUID> cards = new ArrayList<>(count);
+        if (game != null) {
+            final Deck deck = game.getDeck();
+            for (int index : indices) {
+                final Card card = deck == null ? null : deck.getCard(index);
+                if (card == null)
+                    throw new InvalidRequestException();
+                cards.add(card.getUUID());
             }
-            this.cards = cardUUIDs;
-            this.request = jsonObject.get("request").isJsonNull() ? null : jsonObject.get("request")
-                    .getAsJsonPrimitive().getAsString();
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
         }
+        return new PlayCardRequest(Collections.unmodifiableList(cards), reqID, playerID, request);
     }
 
     @Override
@@ -67,14 +97,18 @@ public class PlayCardRequest implements Request {
             Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
             return;
         }
-        try {
-            game.playCard(playerID, cards, request);
-            Makao.getInstance().getServer().sendAck(socket, reqID);
-        } catch (WrongTurnException | InvalidCardException e) {
-            log(e);
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
-        } catch (PlayerNotFoundException | CardNotFoundException e) {
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
-        }
+        game.execute(() -> {
+            try {
+                game.playCard(playerID, cards, request);
+                Makao.getInstance().getServer().sendAck(socket, reqID);
+            } catch (WrongTurnException | InvalidCardException e) {
+                log(e);
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
+            } catch (PlayerNotFoundException | CardNotFoundException e) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
+            } catch (IllegalArgumentException e) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.BAD_REQUEST);
+            }
+        });
     }
 }
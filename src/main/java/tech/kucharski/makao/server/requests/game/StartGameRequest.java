@@ -8,32 +8,46 @@ import tech.kucharski.makao.game.Game;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.ErrorResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.UUID;
 
 /**
  * Starts a game.
+ *
+ * @param playerID Player ID
+ * @param reqID    Request ID
  */
-public class StartGameRequest implements Request {
-    private final UUID reqID, playerID;
+public record StartGameRequest(@NotNull UUID playerID, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<UUID> PLAYER_ID = MessageSchema.uuid("playerID");
+    private static final MessageSchema SCHEMA = new MessageSchema(PLAYER_ID, REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public StartGameRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("playerID", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static StartGameRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-            this.playerID = UUID.fromString(jsonObject.get("playerID").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new StartGameRequest(values.get(PLAYER_ID), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static StartGameRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in) throws BufferUnderflowException,
+            IllegalArgumentException {
+        return new StartGameRequest(in.readUUID(), reqID);
     }
 
     @Override
@@ -43,15 +57,17 @@ public class StartGameRequest implements Request {
             Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
             return;
         }
-        if (!game.checkAdmin(playerID)) {
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
-            return;
-        }
-        try {
-            game.startGame();
-            Makao.getInstance().getServer().sendAck(socket, reqID);
-        } catch (IllegalStateException e) {
-            Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
-        }
+        game.execute(() -> {
+            if (!game.checkAdmin(playerID)) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
+                return;
+            }
+            try {
+                game.startGame();
+                Makao.getInstance().getServer().sendAck(socket, reqID);
+            } catch (IllegalStateException e) {
+                Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.FORBIDDEN);
+            }
+        });
     }
 }
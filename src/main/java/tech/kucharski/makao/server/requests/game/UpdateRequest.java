@@ -5,37 +5,51 @@ import org.java_websocket.WebSocket;
 import org.jetbrains.annotations.NotNull;
 import tech.kucharski.makao.Makao;
 import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.server.Client;
 import tech.kucharski.makao.server.InvalidRequestException;
 import tech.kucharski.makao.server.Request;
 import tech.kucharski.makao.server.messages.responses.ErrorResponse;
 import tech.kucharski.makao.server.messages.responses.game.UpdateResponse;
-import tech.kucharski.makao.util.MessageValidator;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
 
+import java.nio.BufferUnderflowException;
 import java.util.UUID;
 
 /**
  * Sends full update of the game to the client.
+ *
+ * @param gameID Game ID
+ * @param reqID  Request ID
  */
-public class UpdateRequest implements Request {
-    private final UUID gameID;
-    private final UUID reqID;
+public record UpdateRequest(@NotNull UUID gameID, @NotNull UUID reqID) implements Request {
+    private static final MessageSchema.Field<UUID> GAME_ID = MessageSchema.uuid("gameID");
+    private static final MessageSchema SCHEMA = new MessageSchema(GAME_ID, REQUEST_ID);
 
     /**
      * @param jsonObject Request data
+     * @return A request
      * @throws InvalidRequestException When data is invalid.
      */
-    public UpdateRequest(JsonObject jsonObject) throws InvalidRequestException {
-        if (!new MessageValidator()
-                .requirePrimitive("gameID", false)
-                .requirePrimitive("uuid", false)
-                .validate(jsonObject))
+    @NotNull
+    public static UpdateRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
             throw new InvalidRequestException();
-        try {
-            this.reqID = UUID.fromString(jsonObject.get("uuid").getAsJsonPrimitive().getAsString());
-            this.gameID = UUID.fromString(jsonObject.get("gameID").getAsJsonPrimitive().getAsString());
-        } catch (IllegalArgumentException ignored) {
-            throw new InvalidRequestException();
-        }
+        return new UpdateRequest(values.get(GAME_ID), values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID Request ID
+     * @param in    Request data
+     * @return A request
+     * @throws BufferUnderflowException When data is too short.
+     * @throws IllegalArgumentException When data is invalid.
+     */
+    @NotNull
+    public static UpdateRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader in) throws BufferUnderflowException,
+            IllegalArgumentException {
+        return new UpdateRequest(in.readUUID(), reqID);
     }
 
     @Override
@@ -45,7 +59,11 @@ public class UpdateRequest implements Request {
             Makao.getInstance().getServer().sendError(socket, reqID, ErrorResponse.NOT_FOUND);
             return;
         }
-        new UpdateResponse(reqID, game, game.getPlayerID(socket.getAttachment())).send(socket);
-        game.updatePlayer(game.getPlayerID(socket.getAttachment()));
+        final UUID clientID = socket.<Client>getAttachment().getUUID();
+        game.execute(() -> {
+            final UUID playerID = game.getPlayerID(clientID);
+            new UpdateResponse(reqID, game, playerID).send(socket);
+            game.updatePlayer(playerID);
+        });
     }
 }
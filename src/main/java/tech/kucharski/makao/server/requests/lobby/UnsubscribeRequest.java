@@ -0,0 +1,55 @@
+package tech.kucharski.makao.server.requests.lobby;
+
+import com.google.gson.JsonObject;
+import org.java_websocket.WebSocket;
+import org.jetbrains.annotations.NotNull;
+import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.server.Client;
+import tech.kucharski.makao.server.InvalidRequestException;
+import tech.kucharski.makao.server.Request;
+import tech.kucharski.makao.server.Topic;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.MessageSchema;
+
+import java.util.UUID;
+
+/**
+ * Unsubscribes the client from the changes of the list of joinable games, for example while it is playing.
+ *
+ * @param reqID Request ID
+ */
+public record UnsubscribeRequest(@NotNull UUID reqID) implements Request {
+    private static final MessageSchema SCHEMA = new MessageSchema(REQUEST_ID);
+
+    /**
+     * @param jsonObject Request data
+     * @return A request
+     * @throws InvalidRequestException When data is invalid.
+     */
+    @NotNull
+    public static UnsubscribeRequest fromJSON(@NotNull JsonObject jsonObject) throws InvalidRequestException {
+        final MessageSchema.Values values = SCHEMA.parse(jsonObject);
+        if (values == null)
+            throw new InvalidRequestException();
+        return new UnsubscribeRequest(values.get(REQUEST_ID));
+    }
+
+    /**
+     * @param reqID   Request ID
+     * @param ignored Request data
+     * @return A request
+     */
+    @NotNull
+    public static UnsubscribeRequest fromBinary(@NotNull UUID reqID, @NotNull BinaryReader ignored) {
+        return new UnsubscribeRequest(reqID);
+    }
+
+    @Override
+    public void handle(@NotNull WebSocket socket) {
+        final Client client = Makao.getInstance().getServer().getClient(socket);
+        if (client != null) {
+            client.setSubscribed(Topic.LOBBY, false);
+            Makao.getInstance().getServer().sendAck(socket, reqID);
+        }
+    }
+}
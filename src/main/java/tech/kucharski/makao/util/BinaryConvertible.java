@@ -0,0 +1,13 @@
+package tech.kucharski.makao.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The object that can be written in the binary protocol
+ */
+public interface BinaryConvertible {
+    /**
+     * @param out Writer the binary representation of the object shall be written to.
+     */
+    void writeBinary(@NotNull BinaryWriter out);
+}
@@ -0,0 +1,171 @@
+package tech.kucharski.makao.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static tech.kucharski.makao.util.BinaryWriter.NULL_LENGTH;
+import static tech.kucharski.makao.util.BinaryWriter.NULL_ORDINAL;
+
+/**
+ * Reads values written by {@link BinaryWriter}. Reading past the end of the data throws
+ * {@link BufferUnderflowException}, invalid values throw {@link IllegalArgumentException}.
+ */
+public final class BinaryReader {
+    @NotNull
+    private final ByteBuffer buffer;
+
+    /**
+     * @param buffer Data to be read, from its position to its limit.
+     */
+    public BinaryReader(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * @return Unsigned byte.
+     * @throws BufferUnderflowException When there is no more data.
+     */
+    public int readByte() throws BufferUnderflowException {
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * @return Boolean written as a single byte.
+     * @throws BufferUnderflowException When there is no more data.
+     * @throws IllegalArgumentException When the byte is neither 0 nor 1.
+     */
+    public boolean readBoolean() throws BufferUnderflowException, IllegalArgumentException {
+        final int value = readByte();
+        if (value > 1)
+            throw new IllegalArgumentException("Invalid boolean " + value + ".");
+        return value == 1;
+    }
+
+    /**
+     * @return Unsigned short.
+     * @throws BufferUnderflowException When there is no more data.
+     */
+    public int readShort() throws BufferUnderflowException {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    /**
+     * @return Signed int.
+     * @throws BufferUnderflowException When there is no more data.
+     */
+    public int readInt() throws BufferUnderflowException {
+        return buffer.getInt();
+    }
+
+    /**
+     * @return UUID.
+     * @throws BufferUnderflowException When there is no more data.
+     * @throws IllegalArgumentException When the UUID is null.
+     */
+    @NotNull
+    public UUID readUUID() throws BufferUnderflowException, IllegalArgumentException {
+        final UUID uuid = readNullableUUID();
+        if (uuid == null)
+            throw new IllegalArgumentException("UUID cannot be null.");
+        return uuid;
+    }
+
+    /**
+     * @return UUID or null.
+     * @throws BufferUnderflowException When there is no more data.
+     */
+    @Nullable
+    public UUID readNullableUUID() throws BufferUnderflowException {
+        final long mostSignificantBits = buffer.getLong();
+        final long leastSignificantBits = buffer.getLong();
+        if (mostSignificantBits == 0 && leastSignificantBits == 0)
+            return null;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * @return String.
+     * @throws BufferUnderflowException When there is no more data.
+     * @throws IllegalArgumentException When the string is null or is not valid UTF-8.
+     */
+    @NotNull
+    public String readString() throws BufferUnderflowException, IllegalArgumentException {
+        final String string = readNullableString();
+        if (string == null)
+            throw new IllegalArgumentException("String cannot be null.");
+        return string;
+    }
+
+    /**
+     * @return String or null.
+     * @throws BufferUnderflowException When there is no more data.
+     * @throws IllegalArgumentException When the string is not valid UTF-8.
+     */
+    @Nullable
+    public String readNullableString() throws BufferUnderflowException, IllegalArgumentException {
+        final int length = readShort();
+        if (length == NULL_LENGTH)
+            return null;
+        if (length > buffer.remaining())
+            throw new BufferUnderflowException();
+        final ByteBuffer bytes = buffer.slice().limit(length);
+        buffer.position(buffer.position() + length);
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(bytes).toString();
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("Invalid UTF-8 string.", e);
+        }
+    }
+
+    /**
+     * @param values Constants of the enum, as returned by <code>values()</code>.
+     * @param <E>    Type of the enum.
+     * @return Enum constant.
+     * @throws BufferUnderflowException When there is no more data.
+     * @throws IllegalArgumentException When the ordinal is out of range.
+     */
+    @NotNull
+    public <E extends Enum<E>> E readEnum(@NotNull E[] values) throws BufferUnderflowException,
+            IllegalArgumentException {
+        final E value = readNullableEnum(values);
+        if (value == null)
+            throw new IllegalArgumentException("Enum constant cannot be null.");
+        return value;
+    }
+
+    /**
+     * @param values Constants of the enum, as returned by <code>values()</code>.
+     * @param <E>    Type of the enum.
+     * @return Enum constant or null.
+     * @throws BufferUnderflowException When there is no more data.
+     * @throws IllegalArgumentException When the ordinal is out of range.
+     */
+    @Nullable
+    public <E extends Enum<E>> E readNullableEnum(@NotNull E[] values) throws BufferUnderflowException,
+            IllegalArgumentException {
+        final int ordinal = readByte();
+        if (ordinal == NULL_ORDINAL)
+            return null;
+        if (ordinal >= values.length)
+            throw new IllegalArgumentException("Invalid ordinal " + ordinal + ".");
+        return values[ordinal];
+    }
+
+    /**
+     * @return Number of bytes left.
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,184 @@
+package tech.kucharski.makao.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes values of the binary protocol. All numbers are big-endian.
+ * <ul>
+ *     <li>UUIDs take 16 bytes, null is written as the nil UUID.</li>
+ *     <li>Strings are prefixed with their UTF-8 length as an unsigned short, null has the length of
+ *     {@value #NULL_LENGTH}.</li>
+ *     <li>Enum constants are written as an ordinal byte, null as {@value #NULL_ORDINAL}.</li>
+ * </ul>
+ */
+public final class BinaryWriter {
+    /**
+     * Length of a null string.
+     */
+    public static final int NULL_LENGTH = 0xFFFF;
+    /**
+     * Ordinal of a null enum constant.
+     */
+    public static final int NULL_ORDINAL = 0xFF;
+    private byte[] buffer;
+    private int size = 0;
+
+    /**
+     * Creates a writer with the default initial capacity.
+     */
+    public BinaryWriter() {
+        this(64);
+    }
+
+    /**
+     * @param capacity Initial capacity in bytes.
+     */
+    public BinaryWriter(int capacity) {
+        buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * @param bytes Number of bytes about to be written.
+     */
+    private void ensureCapacity(int bytes) {
+        if (size + bytes > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+    }
+
+    /**
+     * @param value Value to be written, only the lowest 8 bits are used.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * @param value Value to be written as a single byte.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * @param value Value to be written, only the lowest 16 bits are used.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeShort(int value) {
+        ensureCapacity(2);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * @param value Value to be written.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeInt(int value) {
+        ensureCapacity(4);
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * @param value Value to be written.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        return writeInt((int) value);
+    }
+
+    /**
+     * @param uuid UUID to be written or null.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeUUID(@Nullable UUID uuid) {
+        if (uuid == null) {
+            writeLong(0);
+            return writeLong(0);
+        }
+        writeLong(uuid.getMostSignificantBits());
+        return writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * @param string String to be written or null.
+     * @return Self for chaining.
+     * @throws IllegalArgumentException When the string is longer than 65534 bytes in UTF-8.
+     */
+    @NotNull
+    public BinaryWriter writeString(@Nullable String string) throws IllegalArgumentException {
+        if (string == null)
+            return writeShort(NULL_LENGTH);
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH)
+            throw new IllegalArgumentException("String is too long.");
+        writeShort(bytes.length);
+        return writeBytes(bytes);
+    }
+
+    /**
+     * @param value Enum constant to be written or null.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeEnum(@Nullable Enum<?> value) {
+        return writeByte(value == null ? NULL_ORDINAL : value.ordinal());
+    }
+
+    /**
+     * @param value Object to be written.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter write(@NotNull BinaryConvertible value) {
+        value.writeBinary(this);
+        return this;
+    }
+
+    /**
+     * @param bytes Bytes to be written.
+     * @return Self for chaining.
+     */
+    @NotNull
+    public BinaryWriter writeBytes(@NotNull byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /**
+     * @return Number of bytes written.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Copy of the bytes written.
+     */
+    @NotNull
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,117 @@
+package tech.kucharski.makao.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel. Deadlines are rounded up to ticks and hashed into a fixed number of buckets, a tick only looks
+ * at the buckets of the ticks that passed, so its cost depends on the number of expiring values, not on the number of
+ * scheduled ones. Deadlines further away than one revolution of the wheel stay in their bucket for more revolutions.
+ * <p>
+ * All times are in the {@link System#nanoTime()} clock. The wheel is thread safe, expired values are passed to the
+ * consumer outside the lock, so they can be scheduled again.
+ *
+ * @param <T> Type of the scheduled values.
+ */
+public final class HashedTimingWheel<T> {
+    private final List<Entry<T>>[] buckets;
+    private final int mask;
+    private final long startNanos;
+    private final long tickNanos;
+    private long currentTick = 0;
+    private int size = 0;
+
+    /**
+     * @param tickDuration Duration of a tick.
+     * @param unit         Unit of the duration.
+     * @param slots        Number of buckets, rounded up to a power of two.
+     * @param startNanos   Time of the tick 0.
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickDuration, @NotNull TimeUnit unit, int slots, long startNanos) {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        if (slots <= 0 || slots > 1 << 30)
+            throw new IllegalArgumentException("Invalid number of slots " + slots + ".");
+        final int length = Integer.highestOneBit(slots) == slots ? slots : Integer.highestOneBit(slots) << 1;
+        buckets = (List<Entry<T>>[]) new List<?>[length];
+        for (int i = 0; i < length; i++)
+            buckets[i] = new ArrayList<>();
+        mask = length - 1;
+        tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Schedules a value. A deadline that has already passed expires on the next tick.
+     *
+     * @param value         Value to be scheduled.
+     * @param deadlineNanos When the value expires.
+     */
+    public synchronized void schedule(@NotNull T value, long deadlineNanos) {
+        final long elapsed = deadlineNanos - startNanos;
+        final long tick = Math.max(currentTick + 1, elapsed <= 0 ? 0 : (elapsed + tickNanos - 1) / tickNanos);
+        buckets[(int) (tick & mask)].add(new Entry<>(value, tick));
+        size++;
+    }
+
+    /**
+     * Advances the wheel to the time and removes the expired values.
+     *
+     * @param nowNanos Current time.
+     * @param expired  Consumer of the expired values.
+     */
+    public void tick(long nowNanos, @NotNull Consumer<T> expired) {
+        final List<T> values = new ArrayList<>();
+        synchronized (this) {
+            final long target = (nowNanos - startNanos) / tickNanos;
+            if (target <= currentTick) return;
+            //Every bucket is visited at most once, even if the wheel is late by more than one revolution
+            final long from = Math.max(currentTick + 1, target - mask);
+            for (long tick = from; tick <= target; tick++)
+                expire(buckets[(int) (tick & mask)], target, values);
+            currentTick = target;
+            size -= values.size();
+        }
+        for (T value : values)
+            expired.accept(value);
+    }
+
+    /**
+     * @param bucket A bucket.
+     * @param tick   Current tick.
+     * @param values Collects the expired values.
+     */
+    private static <T> void expire(@NotNull List<Entry<T>> bucket, long tick, @NotNull List<T> values) {
+        int kept = 0;
+        for (int i = 0, n = bucket.size(); i < n; i++) {
+            final Entry<T> entry = bucket.get(i);
+            if (entry.tick <= tick)
+                values.add(entry.value);
+            else
+                bucket.set(kept++, entry);
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * @return Number of scheduled values.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * A scheduled value.
+     *
+     * @param value Value.
+     * @param tick  Tick at which the value expires.
+     * @param <T>   Type of the value.
+     */
+    private record Entry<T>(@NotNull T value, long tick) {
+    }
+}
@@ -0,0 +1,177 @@
+package tech.kucharski.makao.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An immutable schema of the message. Unlike {@link MessageValidator} it is meant to be built once and it converts
+ * the fields while validating them, so every field is looked up only once.
+ */
+public final class MessageSchema {
+    @NotNull
+    private final Field<?>[] fields;
+
+    /**
+     * @param fields Fields of the message.
+     */
+    public MessageSchema(@NotNull Field<?>... fields) {
+        this.fields = fields.clone();
+    }
+
+    /**
+     * @param key Name of the option.
+     * @return A required string field.
+     */
+    @NotNull
+    public static Field<String> string(@NotNull String key) {
+        return new Field<>(key, false, MessageSchema::toString);
+    }
+
+    /**
+     * @param key Name of the option.
+     * @return A string field that can be null.
+     */
+    @NotNull
+    public static Field<String> nullableString(@NotNull String key) {
+        return new Field<>(key, true, MessageSchema::toString);
+    }
+
+    /**
+     * @param key Name of the option.
+     * @return A required UUID field.
+     */
+    @NotNull
+    public static Field<UUID> uuid(@NotNull String key) {
+        return new Field<>(key, false, element -> UUID.fromString(toString(element)));
+    }
+
+    /**
+     * @param key Name of the option.
+     * @return A required field holding an array of UUIDs.
+     */
+    @NotNull
+    public static Field<List<UUID>> uuidArray(@NotNull String key) {
+        return new Field<>(key, false, element -> {
+            if (!element.isJsonArray())
+                throw new IllegalArgumentException();
+            final JsonArray array = element.getAsJsonArray();
+            final List<UUID> uuids = new ArrayList<>(array.size());
+            for (JsonElement uuid : array)
+                uuids.add(UUID.fromString(toString(uuid)));
+            return Collections.unmodifiableList(uuids);
+        });
+    }
+
+    /**
+     * @param element Element to be converted.
+     * @return String value of the primitive.
+     * @throws IllegalArgumentException When the element is not a primitive.
+     */
+    @NotNull
+    private static String toString(@NotNull JsonElement element) throws IllegalArgumentException {
+        if (!element.isJsonPrimitive())
+            throw new IllegalArgumentException();
+        return element.getAsJsonPrimitive().getAsString();
+    }
+
+    /**
+     * Validates a message and converts all of its fields.
+     *
+     * @param message Message to be parsed.
+     * @return Converted values or null if the message does not match the schema.
+     */
+    @Nullable
+    @Contract("null -> null")
+    public Values parse(@Nullable JsonObject message) {
+        if (message == null) {
+            return null;
+        }
+        final Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            final Field<?> field = fields[i];
+            final JsonElement element = message.get(field.key());
+            if (element == null)
+                return null;
+            if (element.isJsonNull()) {
+                if (!field.nullable())
+                    return null;
+                continue;
+            }
+            try {
+                values[i] = field.converter().convert(element);
+            } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException ignored) {
+                return null;
+            }
+        }
+        return new Values(fields, values);
+    }
+
+    /**
+     * Converts a JSON element to the field type.
+     *
+     * @param <T> Type of the field.
+     */
+    @FunctionalInterface
+    public interface Converter<T> {
+        /**
+         * @param element Element to be converted, never {@link com.google.gson.JsonNull}.
+         * @return Converted value.
+         * @throws IllegalArgumentException When the element cannot be converted.
+         */
+        @NotNull
+        T convert(@NotNull JsonElement element) throws IllegalArgumentException;
+    }
+
+    /**
+     * A field of the message. Fields are immutable and can be shared between schemas.
+     *
+     * @param key       Name of the option.
+     * @param nullable  Whether option can be null.
+     * @param converter Converter of the option.
+     * @param <T>       Type of the field.
+     */
+    public record Field<T>(@NotNull String key, boolean nullable, @NotNull Converter<T> converter) {
+    }
+
+    /**
+     * Values of a parsed message.
+     */
+    public static final class Values {
+        @NotNull
+        private final Field<?>[] fields;
+        @NotNull
+        private final Object[] values;
+
+        /**
+         * @param fields Fields of the schema.
+         * @param values Converted values in the same order as the fields.
+         */
+        private Values(@NotNull Field<?>[] fields, @NotNull Object[] values) {
+            this.fields = fields;
+            this.values = values;
+        }
+
+        /**
+         * @param field Field of the schema that produced these values.
+         * @param <T>   Type of the field.
+         * @return Converted value, null only if the field is nullable.
+         * @throws IllegalArgumentException When the field is not a part of the schema.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T get(@NotNull Field<T> field) throws IllegalArgumentException {
+            for (int i = 0; i < fields.length; i++)
+                if (fields[i] == field)
+                    return (T) values[i];
+            throw new IllegalArgumentException("Field " + field.key() + " is not a part of the schema.");
+        }
+    }
+}
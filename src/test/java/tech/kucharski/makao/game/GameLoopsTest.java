@@ -0,0 +1,29 @@
+package tech.kucharski.makao.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link GameLoops}.
+ */
+public class GameLoopsTest {
+    /**
+     * A game is always run by the same thread.
+     */
+    @Test
+    public void get() throws Exception {
+        final GameLoops loops = new GameLoops(4);
+        assertEquals(4, loops.size());
+        final UUID gameID = UUID.randomUUID();
+        assertSame(loops.get(gameID), loops.get(gameID));
+        final Thread first = CompletableFuture.supplyAsync(Thread::currentThread, loops.get(gameID)).get();
+        final Thread second = CompletableFuture.supplyAsync(Thread::currentThread, loops.get(gameID)).get();
+        assertSame(first, second);
+        assertTrue(first.isDaemon());
+        assertThrows(IllegalArgumentException.class, () -> new GameLoops(0));
+    }
+}
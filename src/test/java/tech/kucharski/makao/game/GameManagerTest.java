@@ -2,8 +2,35 @@ package tech.kucharski.makao.game;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class GameManagerTest {
 
+    /**
+     * Test for {@link GameManager#reserve(UUID, Game)} and {@link GameManager#release(UUID, Game)}.
+     */
+    @Test
+    public void reserve() {
+        final GameManager manager = new GameManager(1);
+        final UUID client = UUID.randomUUID();
+        final Game game = new Game(UUID.randomUUID());
+        final Game other = new Game(UUID.randomUUID());
+        assertNull(manager.getActiveGame(client));
+        assertTrue(manager.reserve(client, game));
+        assertFalse(manager.reserve(client, game));
+        assertFalse(manager.reserve(client, other));
+        assertSame(game, manager.getActiveGame(client));
+
+        //Releasing the slot for another game keeps it
+        manager.release(client, other);
+        assertSame(game, manager.getActiveGame(client));
+        manager.release(client, game);
+        assertNull(manager.getActiveGame(client));
+        assertTrue(manager.reserve(client, other));
+    }
+
     @Test
     public void onClientRemoved() {
         //TODO
@@ -1,9 +1,57 @@
 package tech.kucharski.makao.game;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.Makao;
+import tech.kucharski.makao.game.deck.Card;
+import tech.kucharski.makao.game.deck.Deck;
+import tech.kucharski.makao.game.exceptions.WrongTurnException;
+import tech.kucharski.makao.game.validators.AcceptAllValidator;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Game}. The games use the server, their players have no connected clients.
+ */
 public class GameTest {
 
+    /**
+     * Starts the server.
+     */
+    @BeforeAll
+    public static void start() {
+        Makao.getInstance();
+    }
+
+    /**
+     * Test for {@link Game#sendLobbyUpdate()} queued behind {@link Game#startGame()}, as a rename does, the started
+     * game is not published to the lobby again.
+     */
+    @Test
+    public void sendLobbyUpdate() {
+        final List<Runnable> queued = new ArrayList<>();
+        final Game game = new Game(UUID.randomUUID(), queued::add);
+        game.addPlayer(UUID.randomUUID());
+        assertNotNull(Makao.getInstance().getGameManager().getLobby().get(game.getGameID()));
+
+        //The rename checks the phase on the request thread, before the game is started
+        assertEquals(GamePhase.PREPARING, game.getGameState());
+        final boolean[] published = {true};
+        game.execute(game::startGame);
+        game.execute(() -> published[0] = game.sendLobbyUpdate());
+        queued.forEach(Runnable::run);
+
+        assertEquals(GamePhase.IN_GAME, game.getGameState());
+        assertFalse(published[0]);
+        assertNull(Makao.getInstance().getGameManager().getLobby().get(game.getGameID()));
+    }
+
     @Test
     public void addPlayer() {
         //TODO
@@ -14,9 +62,27 @@ public class GameTest {
         //TODO
     }
 
+    /**
+     * Test for {@link Game#drawCard(UUID)}, the draw is versioned as a move of the cards and an update of the deck, a
+     * second draw in the turn is rejected without a version.
+     *
+     * @throws Exception Never.
+     */
     @Test
-    public void drawCard() {
-        //TODO
+    public void drawCard() throws Exception {
+        final Game game = startedGame();
+        final UUID holder = game.getTurn();
+        assertNotNull(game.getDeck());
+        final int cards = game.getDeck().getPlayerCardUUIDs(holder).size();
+        final long version = game.getStateVersion();
+
+        game.drawCard(holder);
+        //CARDS_MOVED and DECK_UPDATED
+        assertEquals(version + 2, game.getStateVersion());
+        assertEquals(cards + 1, game.getDeck().getPlayerCardUUIDs(holder).size());
+
+        assertThrows(IllegalStateException.class, () -> game.drawCard(holder));
+        assertEquals(version + 2, game.getStateVersion());
     }
 
     @Test
@@ -54,14 +120,90 @@ public class GameTest {
         //TODO
     }
 
+    /**
+     * Test for {@link Game#playCard(UUID, List, String)}, the play is versioned as a move of the cards, an update of the
+     * deck and the next turn, a rejected play has no version.
+     *
+     * @throws Exception Never.
+     */
     @Test
-    public void playCard() {
-        //TODO
+    public void playCard() throws Exception {
+        final Game game = startedGame();
+        final UUID holder = game.getTurn();
+        final Deck deck = game.getDeck();
+        assertNotNull(deck);
+        final Card card = deck.getCardByUUID(deck.getPlayerCardUUIDs(holder).get(0));
+        assertNotNull(card);
+        final long version = game.getStateVersion();
+
+        final UUID other = game.getRoster().stream().map(Player::getUUID).filter(uuid -> !uuid.equals(holder))
+                .findFirst().orElseThrow();
+        assertThrows(WrongTurnException.class, () -> game.playCard(other, List.of(card.getUUID()), null));
+        assertEquals(version, game.getStateVersion());
+
+        game.setValidator(new AcceptAllValidator());
+        game.playCard(holder, List.of(card.getUUID()), request(card));
+        //CARDS_MOVED, DECK_UPDATED and NEXT_TURN
+        assertEquals(version + 3, game.getStateVersion());
+        assertEquals(card, deck.getCurrentTopCard());
+        assertEquals(other, game.getTurn());
     }
 
+    /**
+     * @return A started game of two players.
+     */
+    @NotNull
+    private static Game startedGame() {
+        final Game game = new Game(UUID.randomUUID());
+        game.addPlayer(UUID.randomUUID());
+        game.addPlayer(UUID.randomUUID());
+        game.startGame();
+        return game;
+    }
+
+    /**
+     * @param card A card being played.
+     * @return Request required by the card, null if it does not require one.
+     */
+    @Nullable
+    private static String request(@NotNull Card card) {
+        return switch (card.getType().getDefaultSettings().validatorPreset()) {
+            case REQUIRE_COLOR -> card.getType().getColor().name();
+            case REQUIRE_VALUE -> card.getType().getValue().name();
+            default -> null;
+        };
+    }
+
+    /**
+     * Test for {@link Game#removePlayer(UUID)} of the turn holder after drawing a card, the turn passes to the player
+     * who took the seat and is announced, and the new turn holder can draw a card.
+     *
+     * @throws Exception Never.
+     */
     @Test
-    public void removePlayer() {
-        //TODO
+    public void removePlayer() throws Exception {
+        final Game game = new Game(UUID.randomUUID());
+        final List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            players.add(game.addPlayer(UUID.randomUUID()).getUUID());
+        game.startGame();
+
+        final UUID holder = game.getTurn();
+        final int seat = players.indexOf(holder);
+        final UUID next = players.get((seat + 1) % players.size());
+        game.drawCard(holder);
+        final long version = game.getStateVersion();
+
+        game.removePlayer(holder);
+        assertEquals(next, game.getTurn());
+        //PLAYER_LEFT and NEXT_TURN
+        assertEquals(version + 2, game.getStateVersion());
+        assertNotNull(game.getDeck());
+        assertTrue(game.getDeck().getPlayerCardUUIDs(holder).isEmpty());
+
+        //The draw of the removed turn holder does not count for the new one
+        game.drawCard(next);
+        assertThrows(IllegalStateException.class, () -> game.drawCard(next));
     }
 
     @Test
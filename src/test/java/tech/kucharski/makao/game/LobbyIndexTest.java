@@ -0,0 +1,47 @@
+package tech.kucharski.makao.game;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.server.messages.responses.GetGamesResponse;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LobbyIndex}. The games have no players, so they can be serialized without a server.
+ */
+public class LobbyIndexTest {
+    /**
+     * The snapshot is rebuilt only after a change and matches the games serialized directly.
+     */
+    @Test
+    public void getSnapshot() {
+        final LobbyIndex lobby = new LobbyIndex();
+        final Game first = new Game(UUID.randomUUID());
+        final Game second = new Game(UUID.randomUUID());
+        assertEquals("[]", lobby.getSnapshot().json());
+
+        lobby.update(first);
+        lobby.update(second);
+        final LobbyIndex.Snapshot snapshot = lobby.getSnapshot();
+        assertSame(snapshot, lobby.getSnapshot());
+        assertEquals(2, snapshot.games().size());
+        final JsonArray expected = new JsonArray();
+        snapshot.games().forEach(game -> expected.add(game.toJSONObject()));
+        assertEquals(expected, JsonParser.parseString(snapshot.json()));
+        assertEquals(2, snapshot.binary()[1]);
+
+        final GetGamesResponse response = new GetGamesResponse(UUID.randomUUID(), snapshot);
+        assertEquals(response.toJSONObject().toString(), response.toJSONString());
+
+        //Removing an unknown game does not invalidate the snapshot
+        lobby.remove(new Game(UUID.randomUUID()));
+        assertSame(snapshot, lobby.getSnapshot());
+        lobby.remove(first);
+        assertEquals(1, lobby.size());
+        assertEquals(1, lobby.getSnapshot().games().size());
+        assertSame(second, lobby.getSnapshot().games().get(0));
+    }
+}
@@ -0,0 +1,48 @@
+package tech.kucharski.makao.game;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.server.messages.GameListChangedMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LobbyUpdates}. The window is long enough for the scheduled flush not to run, the test flushes.
+ */
+public class LobbyUpdatesTest {
+    /**
+     * Changes of a game within a window are sent once, removed games are sent by their ID.
+     */
+    @Test
+    public void flush() {
+        final LobbyIndex lobby = new LobbyIndex();
+        final List<GameListChangedMessage> published = new ArrayList<>();
+        final LobbyUpdates updates = new LobbyUpdates(lobby, 3_600_000, published::add);
+        final Game game = new Game(UUID.randomUUID());
+        final Game removed = new Game(UUID.randomUUID());
+        lobby.update(game);
+        lobby.update(removed);
+        for (int i = 0; i < 3; i++)
+            updates.changed(game.getGameID());
+        updates.changed(removed.getGameID());
+        lobby.remove(removed);
+        updates.flush();
+
+        assertEquals(1, published.size());
+        final JsonObject message = published.get(0).toJSONObject();
+        assertEquals("GAME_LIST_CHANGED", message.get("req").getAsString());
+        final JsonArray games = message.getAsJsonArray("games");
+        assertEquals(1, games.size());
+        assertEquals(game.toJSONObject(), games.get(0));
+        assertEquals(removed.getGameID().toString(), message.getAsJsonArray("removed").get(0).getAsString());
+
+        //Nothing changed since the last flush
+        updates.flush();
+        assertEquals(1, published.size());
+    }
+}
@@ -2,12 +2,13 @@ package tech.kucharski.makao.game;
 
 import org.junit.jupiter.api.Test;
 
-public class TurnManagerTest {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
-    @Test
-    public void addPlayer() {
-        //TODO
-    }
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnManagerTest {
 
     @Test
     public void getCurrentPlayer() {
@@ -24,9 +25,42 @@ public class TurnManagerTest {
         //TODO
     }
 
+    /**
+     * Test for {@link TurnManager#removeSeat(int)}, the turn stays with its holder or passes to the next seat.
+     */
     @Test
-    public void removePlayer() {
-        //TODO
+    public void removeSeat() {
+        final List<Player> seats = new ArrayList<>();
+        final Player[] players = new Player[4];
+        final TurnManager turnManager = new TurnManager(seats);
+        for (int i = 0; i < players.length; i++)
+            seats.add(players[i] = new Player(UUID.randomUUID(), UUID.randomUUID(), null, null));
+        assertFalse(turnManager.removeSeat(0));
+        turnManager.setRandom();
+        turnManager.setRandom();
+        assertEquals(players[1].getUUID(), turnManager.getCurrentPlayer());
+
+        assertFalse(remove(seats, turnManager, players[0]));
+        assertEquals(players[1].getUUID(), turnManager.getCurrentPlayer());
+        assertTrue(remove(seats, turnManager, players[1]));
+        assertEquals(players[2].getUUID(), turnManager.getCurrentPlayer());
+        turnManager.setRandom();
+        assertTrue(remove(seats, turnManager, players[3]));
+        assertEquals(players[2].getUUID(), turnManager.getCurrentPlayer());
+    }
+
+    /**
+     * Removes a player from its seat, as the game does.
+     *
+     * @param seats       Players in the order of their seats.
+     * @param turnManager Turn manager of the players.
+     * @param player      Player to be removed.
+     * @return Whether the player was the turn holder.
+     */
+    private static boolean remove(List<Player> seats, TurnManager turnManager, Player player) {
+        final int seat = seats.indexOf(player);
+        seats.remove(seat);
+        return turnManager.removeSeat(seat);
     }
 
     @Test
@@ -1,12 +1,37 @@
 package tech.kucharski.makao.game.deck;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.game.validators.CardMask;
+import tech.kucharski.makao.util.BinaryWriter;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class DeckTest {
 
+    /**
+     * Test for {@link Deck#getCardByUUID(UUID)} with several decks, every card is found by its UUID and its index.
+     */
     @Test
     public void getCardByUUID() {
-        //TODO
+        final Deck deck = new Deck(3, new HashMap<>());
+        final Card[] cards = deck.getCards();
+        assertEquals(3 * CardType.values().length, cards.length);
+        final Set<UUID> uuids = new HashSet<>();
+        for (int i = 0; i < cards.length; i++) {
+            assertEquals(i, cards[i].getIndex());
+            assertEquals(CardType.values()[i % CardType.values().length], cards[i].getType());
+            assertEquals(cards[i], deck.getCardByUUID(cards[i].getUUID()));
+            assertEquals(cards[i], deck.getCard(i));
+            assertEquals(4, cards[i].getUUID().version());
+            assertEquals(2, cards[i].getUUID().variant());
+            uuids.add(cards[i].getUUID());
+        }
+        assertEquals(cards.length, uuids.size());
+        assertNull(deck.getCardByUUID(UUID.randomUUID()));
     }
 
     @Test
@@ -24,14 +49,144 @@ public class DeckTest {
         //TODO
     }
 
+    /**
+     * Test for {@link Deck#givePlayerCards(UUID, int)}, an empty draw pile is refilled from the discard pile, which
+     * keeps its top card.
+     */
     @Test
     public void givePlayerCards() {
-        //TODO
+        final Deck deck = new Deck(1, new HashMap<>());
+        final UUID player = UUID.randomUUID();
+        final int total = deck.getCards().length;
+        deck.givePlayerCards(player, deck.unusedCount());
+        assertEquals(0, deck.unusedCount());
+        for (int i = 0; i < 3; i++)
+            deck.playCard(Objects.requireNonNull(deck.getCardByUUID(deck.getPlayerCardUUIDs(player).get(0))));
+        final Card top = deck.getCurrentTopCard();
+        final int hand = deck.getPlayerCardUUIDs(player).size();
+
+        deck.givePlayerCards(player, 1);
+        assertEquals(top, deck.getCurrentTopCard());
+        assertEquals(1, deck.usedCount());
+        assertEquals(hand + 1, deck.getPlayerCardUUIDs(player).size());
+        assertEquals(total, deck.unusedCount() + deck.usedCount() + hand + 1);
+        for (Card card : deck.getCards())
+            assertEquals(card.equals(top) ? CardLocation.DISCARDED : deck.isHeldBy(player, card) ? CardLocation.HAND
+                    : CardLocation.REMAINING, deck.getLocation(card));
     }
 
+    /**
+     * Test for {@link Deck#playCard(Card)}, the card moves from the hand holding it to the discard pile.
+     */
     @Test
     public void playCard() {
-        //TODO
+        final Deck deck = new Deck(1, new HashMap<>());
+        final UUID player = UUID.randomUUID();
+        final UUID other = UUID.randomUUID();
+        deck.givePlayerCards(player, 5);
+        deck.givePlayerCards(other, 5);
+        final Card card = deck.getCardByUUID(deck.getPlayerCardUUIDs(player).get(2));
+        assertNotNull(card);
+        assertTrue(deck.isHeldBy(player, card));
+        assertFalse(deck.isHeldBy(other, card));
+        assertEquals(CardLocation.HAND, deck.getLocation(card));
+
+        final int discarded = deck.usedCount();
+        deck.playCard(card);
+        assertFalse(deck.isHeldBy(player, card));
+        assertEquals(CardLocation.DISCARDED, deck.getLocation(card));
+        assertEquals(card, deck.getCurrentTopCard());
+        assertEquals(4, deck.getPlayerCardUUIDs(player).size());
+        assertEquals(5, deck.getPlayerCardUUIDs(other).size());
+        assertEquals(discarded + 1, deck.usedCount());
+
+        //A card that is not in a hand is not played again
+        deck.playCard(card);
+        assertEquals(discarded + 1, deck.usedCount());
+
+        //A card of another deck has no location in this one
+        final Card foreign = new Deck(1, new HashMap<>()).getCard(card.getIndex());
+        assertThrows(IllegalArgumentException.class, () -> deck.getLocation(foreign));
+    }
+
+    /**
+     * Test for {@link Deck#writeCardIndices(BinaryWriter, List)}, a UUID of a card of another deck is rejected.
+     */
+    @Test
+    public void writeCardIndices() {
+        final Deck deck = new Deck(1, new HashMap<>());
+        final Card card = deck.getCard(3);
+        final BinaryWriter out = new BinaryWriter();
+        deck.writeCardIndices(out, List.of(card.getUUID()));
+        assertEquals(4, out.size());
+
+        final UUID foreign = new Deck(1, new HashMap<>()).getCard(3).getUUID();
+        assertThrows(IllegalArgumentException.class,
+                () -> deck.writeCardIndices(new BinaryWriter(), List.of(card.getUUID(), foreign)));
+        assertThrows(IllegalArgumentException.class,
+                () -> deck.writeCardIndices(new BinaryWriter(), List.of(UUID.randomUUID())));
+    }
+
+    /**
+     * Test for {@link Deck#getPlayableCards(UUID, long)}, compared with checking every card of the hand.
+     */
+    @Test
+    public void getPlayableCards() {
+        final Deck deck = new Deck(2, new HashMap<>());
+        final UUID player = UUID.randomUUID();
+        deck.givePlayerCards(player, 40);
+        final List<Card> hand = new ArrayList<>();
+        for (UUID uuid : deck.getPlayerCardUUIDs(player))
+            hand.add(Objects.requireNonNull(deck.getCardByUUID(uuid)));
+        final long mask = CardMask.of(CardColor.HEARTS) | CardMask.of(CardValue.CARD_QUEEN);
+
+        final List<UUID> cards = new ArrayList<>();
+        final Set<CardValue> values = EnumSet.noneOf(CardValue.class);
+        for (Card card : hand)
+            if (CardMask.contains(mask, card.getType())) {
+                cards.add(card.getUUID());
+                values.add(card.getType().getValue());
+            }
+        final List<List<UUID>> combinations = new ArrayList<>();
+        for (CardValue value : values) {
+            final List<UUID> combination = new ArrayList<>();
+            for (Card card : hand)
+                if (card.getType().getValue() == value)
+                    combination.add(card.getUUID());
+            if (combination.size() > 1)
+                combinations.add(combination);
+        }
+
+        final PlayableCards playable = deck.getPlayableCards(player, mask);
+        assertEquals(cards, playable.cards());
+        assertEquals(combinations, playable.combinations());
+        assertEquals(new PlayableCards(List.of(), List.of()), deck.getPlayableCards(player, 0));
+    }
+
+    /**
+     * Test for {@link Deck#toSimpleJSONObject(int)}, only the top cards of the discard pile are included.
+     */
+    @Test
+    public void toSimpleJSONObject() {
+        final Deck deck = new Deck(1, new HashMap<>());
+        final UUID player = UUID.randomUUID();
+        deck.givePlayerCards(player, 10);
+        for (UUID uuid : deck.getPlayerCardUUIDs(player))
+            deck.playCard(Objects.requireNonNull(deck.getCardByUUID(uuid)));
+        final JsonArray all = deck.toDiscardedJSON();
+        assertEquals(deck.usedCount(), all.size());
+
+        final JsonObject simple = deck.toSimpleJSONObject(3).getAsJsonObject();
+        assertEquals(deck.unusedCount(), simple.get("unusedCount").getAsInt());
+        assertEquals(deck.usedCount(), simple.get("usedCount").getAsInt());
+        final JsonArray top = simple.getAsJsonArray("discardedCards");
+        assertEquals(3, top.size());
+        for (int i = 0; i < 3; i++)
+            assertEquals(all.get(all.size() - 3 + i), top.get(i));
+        assertEquals(deck.getCurrentTopCard().getUUID().toString(), top.get(2).getAsString());
+
+        assertEquals(all, deck.toSimpleJSONObject(all.size() + 1).getAsJsonObject().getAsJsonArray("discardedCards"));
+        assertEquals(0, deck.toSimpleJSONObject(0).getAsJsonObject().getAsJsonArray("discardedCards").size());
     }
 
     @Test
@@ -39,9 +194,26 @@ public class DeckTest {
         //TODO
     }
 
+    /**
+     * Test for {@link Deck#removePlayer(UUID)}, the cards of the player are discarded and no longer held by anyone.
+     */
     @Test
     public void removePlayer() {
-        //TODO
+        final Deck deck = new Deck(1, new HashMap<>());
+        final UUID player = UUID.randomUUID();
+        deck.givePlayerCards(player, 5);
+        final List<UUID> hand = deck.getPlayerCardUUIDs(player);
+        final int discarded = deck.usedCount();
+
+        deck.removePlayer(player);
+        assertEquals(discarded + 5, deck.usedCount());
+        assertEquals(0, deck.getHandSize(player));
+        assertTrue(deck.getPlayerCardUUIDs(player).isEmpty());
+        for (UUID uuid : hand) {
+            final Card card = Objects.requireNonNull(deck.getCardByUUID(uuid));
+            assertFalse(deck.isHeldBy(player, card));
+            assertEquals(CardLocation.DISCARDED, deck.getLocation(card));
+        }
     }
 
     @Test
@@ -0,0 +1,39 @@
+package tech.kucharski.makao.game.validators;
+
+import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.game.deck.Card;
+import tech.kucharski.makao.game.deck.CardColor;
+import tech.kucharski.makao.game.deck.CardType;
+import tech.kucharski.makao.game.deck.CardValue;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CardMask}.
+ */
+public class CardMaskTest {
+    /**
+     * Test for {@link CardValidator#toMask()}, the masks of the validators accept the same cards as the validators.
+     */
+    @Test
+    public void toMask() {
+        final List<CardValidator> validators = List.of(
+                new AcceptAllValidator(),
+                new RequireColorValidator(CardColor.HEARTS),
+                new RequireValueValidator(CardValue.CARD_QUEEN),
+                new CombinedValidator(),
+                new CombinedValidator(new RequireColorValidator(CardColor.SPADES),
+                        new RequireValueValidator(CardValue.CARD_ACE)),
+                //Uses the default implementation
+                card -> card.getType().getColor() == CardColor.CLUBS || card.getType() == CardType.HEARTS_K
+        );
+        for (CardValidator validator : validators) {
+            final long mask = validator.toMask();
+            for (CardType type : CardType.values())
+                assertEquals(validator.validate(new Card(UUID.randomUUID(), type)), CardMask.contains(mask, type));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tech.kucharski.makao.server;
+
+import org.java_websocket.WebSocket;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ClientRegistry}.
+ */
+public class ClientRegistryTest {
+    /**
+     * Test for {@link ClientRegistry#register(java.util.function.Function)} and
+     * {@link ClientRegistry#remove(Client)}.
+     */
+    @Test
+    public void register() {
+        final ClientRegistry registry = new ClientRegistry();
+        final Client client = registry.register(Client::new);
+        final Client other = registry.register(Client::new);
+        assertNotEquals(client.getUUID(), other.getUUID());
+        assertSame(client, registry.get(client.getUUID()));
+        assertEquals(2, registry.size());
+        assertTrue(registry.getClients().contains(other));
+        assertNull(registry.get((UUID) null));
+
+        //Only the registered instance is removed
+        registry.remove(new Client(client.getUUID()));
+        assertSame(client, registry.get(client.getUUID()));
+        registry.remove(client);
+        assertNull(registry.get(client.getUUID()));
+        assertEquals(1, registry.size());
+        assertThrows(UnsupportedOperationException.class, () -> registry.getClients().clear());
+    }
+
+    /**
+     * Test for {@link ClientRegistry#getOnlineClients()}.
+     */
+    @Test
+    public void online() {
+        final ClientRegistry registry = new ClientRegistry();
+        final Client client = registry.register(Client::new);
+        final Client other = registry.register(Client::new);
+        assertEquals(List.of(), registry.getOnlineClients());
+
+        client.setSocket(socket(true));
+        other.setSocket(socket(true));
+        final List<Client> online = registry.getOnlineClients();
+        assertEquals(Set.of(client, other), new HashSet<>(online));
+        assertEquals(2, registry.getOnlineCount());
+        //The snapshot is reused until the set changes
+        assertSame(online, registry.getOnlineClients());
+
+        client.setSocket(socket(false));
+        assertEquals(List.of(other), registry.getOnlineClients());
+        assertEquals(2, online.size());
+        registry.remove(other);
+        assertEquals(List.of(), registry.getOnlineClients());
+        assertEquals(0, registry.getOnlineCount());
+    }
+
+    /**
+     * Test for {@link ClientRegistry#getSubscribers(Topic)}.
+     */
+    @Test
+    public void subscribers() {
+        final ClientRegistry registry = new ClientRegistry();
+        final Client client = registry.register(Client::new);
+        final Client other = registry.register(Client::new);
+        client.setSocket(socket(true));
+        other.setSocket(socket(true));
+        //Clients are subscribed by default
+        assertEquals(Set.of(client, other), new HashSet<>(registry.getSubscribers(Topic.LOBBY)));
+
+        other.setSubscribed(Topic.LOBBY, false);
+        assertEquals(List.of(client), registry.getSubscribers(Topic.LOBBY));
+        assertEquals(2, registry.getOnlineCount());
+
+        //A subscription is kept while the client is disconnected
+        client.setSocket(socket(false));
+        assertEquals(List.of(), registry.getSubscribers(Topic.LOBBY));
+        client.setSocket(socket(true));
+        other.setSubscribed(Topic.LOBBY, true);
+        assertEquals(Set.of(client, other), new HashSet<>(registry.getSubscribers(Topic.LOBBY)));
+        registry.remove(client);
+        assertEquals(List.of(other), registry.getSubscribers(Topic.LOBBY));
+    }
+
+    /**
+     * @param open Whether the socket is open.
+     * @return A socket that only answers {@link WebSocket#isOpen()}.
+     */
+    private static WebSocket socket(boolean open) {
+        return (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[]{WebSocket.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> open;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
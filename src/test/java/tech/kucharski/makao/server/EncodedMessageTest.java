@@ -0,0 +1,123 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.server.messages.HelloMessage;
+import tech.kucharski.makao.util.BinaryReader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link EncodedMessage}.
+ */
+public class EncodedMessageTest {
+    /**
+     * Test for {@link EncodedMessage#encode(Integer)}.
+     */
+    @Test
+    public void encode() {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("req", "Za\u017c\u00f3\u0142\u0107");
+        final EncodedMessage encoded = EncodedMessage.of(() -> jsonObject);
+
+        assertEquals(jsonObject, parse(encoded.encode(null)));
+        for (int messageID : new int[]{0, 7, 12345, Integer.MAX_VALUE, -1}) {
+            final JsonObject expected = jsonObject.deepCopy();
+            expected.addProperty("_msgID", messageID);
+            assertEquals(expected, parse(encoded.encode(messageID)));
+        }
+
+        final EncodedMessage empty = EncodedMessage.of(JsonObject::new);
+        assertEquals("{}", new String(empty.encode(null), StandardCharsets.UTF_8));
+        assertEquals("{\"_msgID\":3}", new String(empty.encode(3), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test for {@link EncodedMessage#compress(Integer, CompressionStats)}.
+     */
+    @Test
+    public void compress() throws DataFormatException {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("req", "GAME_LIST_UPDATED");
+        jsonObject.addProperty("padding", "makao ".repeat(500));
+        final EncodedMessage encoded = EncodedMessage.of(() -> jsonObject);
+        final CompressionStats stats = new CompressionStats();
+
+        //The inflater is shared, as the context of the receiver is not reset between messages
+        final Inflater inflater = new Inflater(true);
+        for (Integer messageID : new Integer[]{null, 1, 123456}) {
+            final byte[] compressed = encoded.compress(messageID, stats);
+            final byte[] expected = encoded.encode(messageID);
+            assertTrue(compressed.length < expected.length);
+            assertArrayEquals(expected, inflate(inflater, compressed, expected.length));
+        }
+        inflater.end();
+        assertEquals(1, stats.getCompressions());
+    }
+
+    /**
+     * Test for {@link EncodedMessage#encodeBinary(Integer)}.
+     */
+    @Test
+    public void encodeBinary() {
+        final UUID clientID = UUID.randomUUID();
+        final UUID serverID = UUID.randomUUID();
+        final EncodedMessage encoded = EncodedMessage.of(new HelloMessage(clientID, serverID),
+                EnumSet.of(WireProtocol.BINARY));
+        assertTrue(encoded.isEncodedFor(WireProtocol.BINARY));
+        assertFalse(encoded.isEncodedFor(WireProtocol.JSON));
+        assertThrows(IllegalStateException.class, () -> encoded.encode(1));
+
+        for (Integer messageID : new Integer[]{null, 0, 123456789}) {
+            final BinaryReader in = new BinaryReader(ByteBuffer.wrap(encoded.encodeBinary(messageID)));
+            assertEquals(Messages.HELLO, in.readEnum(Messages.values()));
+            assertEquals(messageID == null ? -1 : messageID, in.readInt());
+            assertEquals(clientID, in.readUUID());
+            assertEquals(serverID, in.readUUID());
+            assertEquals(0, in.remaining());
+        }
+    }
+
+    /**
+     * Test for {@link EncodedMessage#of(Message)}.
+     */
+    @Test
+    public void of() {
+        assertThrows(NullPointerException.class, () -> EncodedMessage.of(() -> null));
+    }
+
+    /**
+     * Decompresses a permessage-deflate payload.
+     *
+     * @param inflater Inflater of the receiver.
+     * @param payload  Compressed payload without the trailing empty block.
+     * @param size     Expected size of the decompressed payload.
+     * @return Decompressed payload.
+     */
+    private static byte[] inflate(Inflater inflater, byte[] payload, int size) throws DataFormatException {
+        inflater.setInput(payload);
+        final byte[] out = new byte[size + 1];
+        int position = inflater.inflate(out);
+        inflater.setInput(new byte[]{0, 0, (byte) 0xff, (byte) 0xff});
+        position += inflater.inflate(out, position, out.length - position);
+        assertEquals(0, inflater.getRemaining());
+        return Arrays.copyOf(out, position);
+    }
+
+    /**
+     * @param bytes UTF-8 encoded JSON.
+     * @return Parsed JSON object.
+     */
+    private static JsonObject parse(byte[] bytes) {
+        return JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+}
@@ -0,0 +1,60 @@
+package tech.kucharski.makao.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link InboundQueue}. The executor only collects the tasks, they are run by the test.
+ */
+public class InboundQueueTest {
+    /**
+     * Requests are handled in order, by a single task of the executor.
+     */
+    @Test
+    public void order() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final InboundQueue queue = new InboundQueue(tasks::add, 64);
+        final List<Integer> handled = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final int request = i;
+            assertTrue(queue.offer(() -> handled.add(request)));
+        }
+        assertEquals(1, tasks.size());
+        assertEquals(20, queue.getInFlight());
+        //A run handles a batch of requests and schedules the rest
+        tasks.remove().run();
+        assertEquals(1, tasks.size());
+        tasks.remove().run();
+        assertTrue(tasks.isEmpty());
+        for (int i = 0; i < 20; i++)
+            assertEquals(i, handled.get(i));
+        assertEquals(0, queue.getInFlight());
+    }
+
+    /**
+     * Requests over the limit are rejected, an exception does not stop the queue.
+     */
+    @Test
+    public void limit() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final InboundQueue queue = new InboundQueue(tasks::add, 2);
+        final List<String> handled = new ArrayList<>();
+        assertTrue(queue.offer(() -> {
+            throw new IllegalStateException();
+        }));
+        assertTrue(queue.offer(() -> handled.add("second")));
+        assertFalse(queue.offer(() -> handled.add("third")));
+        assertEquals(1, queue.getRejected());
+        tasks.remove().run();
+        assertEquals(List.of("second"), handled);
+        assertTrue(queue.offer(() -> handled.add("fourth")));
+        tasks.remove().run();
+        assertEquals(List.of("second", "fourth"), handled);
+    }
+}
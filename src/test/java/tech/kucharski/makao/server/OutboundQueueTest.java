@@ -0,0 +1,145 @@
+package tech.kucharski.makao.server;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.game.Game;
+import tech.kucharski.makao.server.messages.game.DeckUpdatedMessage;
+import tech.kucharski.makao.server.messages.game.GameStateChangedMessage;
+import tech.kucharski.makao.server.messages.game.PhaseChangedMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link OutboundQueue}. The queues are never drained by their executor, the messages are polled instead.
+ */
+public class OutboundQueueTest {
+    /**
+     * Test for {@link OutboundQueue#offer(EncodedMessage)} with coalescing keys.
+     */
+    @Test
+    public void coalesce() {
+        final OutboundQueue queue = queue(16, 8);
+        final UUID game = UUID.randomUUID();
+        final EncodedMessage first = message("first", new CoalescingKey(Messages.GAME__DECK_UPDATED, game));
+        final EncodedMessage other = message("other", new CoalescingKey(Messages.GAME__DECK_UPDATED, UUID.randomUUID()));
+        final EncodedMessage plain = message("plain", null);
+        final EncodedMessage second = message("second", new CoalescingKey(Messages.GAME__DECK_UPDATED, game));
+        queue.offer(first);
+        queue.offer(other);
+        queue.offer(plain);
+        queue.offer(second);
+
+        assertEquals(3, queue.getDepth());
+        assertEquals(1, queue.getCoalesced());
+        //The newer message takes the place at the end of the queue
+        assertSame(other, queue.poll());
+        assertSame(plain, queue.poll());
+        assertSame(second, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(3, queue.getSent());
+        assertEquals(0, queue.getDropped());
+    }
+
+    /**
+     * Test for {@link OutboundQueue#offer(EncodedMessage)} with versioned game messages interleaved with snapshots, the
+     * versions are received in increasing order and no message is lost.
+     */
+    @Test
+    public void versions() {
+        final OutboundQueue queue = queue(16, 8);
+        final long[] version = {0};
+        final Game game = new Game(UUID.randomUUID()) {
+            @Override
+            public long getStateVersion() {
+                return version[0];
+            }
+
+            @Override
+            public JsonObject toFullJSONObject() {
+                final JsonObject jsonObject = new JsonObject();
+                jsonObject.addProperty("version", version[0]);
+                return jsonObject;
+            }
+        };
+        final List<Function<Game, Message>> messages = List.of(GameStateChangedMessage::new, PhaseChangedMessage::new,
+                DeckUpdatedMessage::new, GameStateChangedMessage::new, DeckUpdatedMessage::new,
+                GameStateChangedMessage::new);
+        for (Function<Game, Message> message : messages) {
+            version[0]++;
+            queue.offer(EncodedMessage.of(message.apply(game)));
+        }
+
+        assertEquals(0, queue.getCoalesced());
+        long last = 0;
+        for (EncodedMessage message; (message = queue.poll()) != null; ) {
+            final JsonObject jsonObject = JsonParser.parseString(
+                    new String(message.encode(null), StandardCharsets.UTF_8)).getAsJsonObject();
+            final long received = (jsonObject.has("game") ? jsonObject.getAsJsonObject("game") : jsonObject)
+                    .get("version").getAsLong();
+            assertEquals(last + 1, received);
+            last = received;
+        }
+        assertEquals(messages.size(), last);
+    }
+
+    /**
+     * Test for the capacity and the high-water mark of {@link OutboundQueue}.
+     */
+    @Test
+    public void slow() {
+        final OutboundQueue queue = queue(4, 2);
+        for (int i = 0; i < 3; i++)
+            queue.offer(message("m" + i, null));
+        assertTrue(queue.isSlow());
+        queue.poll();
+        assertFalse(queue.isSlow());
+
+        for (int i = 0; i < 2; i++)
+            queue.offer(message("n" + i, null));
+        assertEquals(4, queue.getDepth());
+        //The queue is full, all messages are dropped
+        queue.offer(message("overflow", null));
+        assertEquals(0, queue.getDepth());
+        assertEquals(5, queue.getDropped());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * @param capacity      Capacity of the queue.
+     * @param highWaterMark High-water mark of the queue.
+     * @return Queue of a client without a socket, that is never drained.
+     */
+    private static OutboundQueue queue(int capacity, int highWaterMark) {
+        final ServerSettings settings = new ServerSettings().setOutboundCapacity(capacity)
+                .setOutboundHighWaterMark(highWaterMark);
+        return new Client(UUID.randomUUID(), task -> {
+        }, settings).getOutboundQueue();
+    }
+
+    /**
+     * @param req Type of the message.
+     * @param key Coalescing key of the message.
+     * @return Encoded message.
+     */
+    private static EncodedMessage message(String req, CoalescingKey key) {
+        return EncodedMessage.of(new Message() {
+            @Override
+            public JsonObject toJSONObject() {
+                final JsonObject jsonObject = new JsonObject();
+                jsonObject.addProperty("req", req);
+                return jsonObject;
+            }
+
+            @Override
+            public Object getCoalescingKey() {
+                return key;
+            }
+        });
+    }
+}
@@ -1,11 +1,93 @@
 package tech.kucharski.makao.server;
 
+import com.google.gson.JsonObject;
 import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.server.requests.ChangeNameRequest;
+import tech.kucharski.makao.server.requests.GetGamesRequest;
+import tech.kucharski.makao.server.requests.game.DiscardPileRequest;
+import tech.kucharski.makao.server.requests.game.JoinRequest;
+import tech.kucharski.makao.util.BinaryReader;
+import tech.kucharski.makao.util.BinaryWriter;
 
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Requests}.
+ */
 public class RequestsTest {
 
+    /**
+     * Test for {@link Requests#create(JsonObject)}.
+     */
+    @Test
+    public void create() throws InvalidRequestException {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("uuid", UUID.randomUUID().toString());
+        for (Requests request : new Requests[]{Requests.HEARTBEAT, Requests.GET_GAMES, Requests.CREATE_GAME,
+                Requests.GAME__LIST, Requests.CHANGE_AVATAR, Requests.LOBBY__SUBSCRIBE, Requests.LOBBY__UNSUBSCRIBE})
+            assertInstanceOf(request.getClazz(), request.create(jsonObject));
+
+        assertThrows(InvalidRequestException.class, () -> Requests.GAME__JOIN.create(jsonObject));
+        jsonObject.addProperty("uuid", "not an uuid");
+        assertThrows(InvalidRequestException.class, () -> Requests.GET_GAMES.create(jsonObject));
+    }
+
+    /**
+     * Test for {@link Requests#create(UUID, BinaryReader)}.
+     */
+    @Test
+    public void createBinary() throws InvalidRequestException {
+        final UUID reqID = UUID.randomUUID();
+        final UUID gameID = UUID.randomUUID();
+        assertEquals(new JoinRequest(gameID, reqID),
+                Requests.GAME__JOIN.create(reqID, reader(new BinaryWriter().writeUUID(gameID))));
+        assertEquals(new ChangeNameRequest("Name", reqID),
+                Requests.CHANGE_NAME.create(reqID, reader(new BinaryWriter().writeString("Name"))));
+        assertEquals(new GetGamesRequest(reqID), Requests.GET_GAMES.create(reqID, reader(new BinaryWriter())));
+        assertEquals(new DiscardPileRequest(gameID, reqID),
+                Requests.GAME__DISCARD_PILE.create(reqID, reader(new BinaryWriter().writeUUID(gameID))));
+
+        assertThrows(InvalidRequestException.class, () -> Requests.GAME__JOIN.create(reqID, reader(new BinaryWriter())));
+        assertThrows(InvalidRequestException.class,
+                () -> Requests.GAME__JOIN.create(reqID, reader(new BinaryWriter().writeUUID(null))));
+    }
+
+    /**
+     * Test for {@link Requests#fromOpcode(int)}.
+     */
+    @Test
+    public void fromOpcode() {
+        for (Requests request : Requests.values())
+            assertEquals(request, Requests.fromOpcode(request.getOpcode()));
+        assertNull(Requests.fromOpcode(-1));
+        assertNull(Requests.fromOpcode(Requests.values().length));
+    }
+
+    /**
+     * @param out Written data.
+     * @return Reader of the data.
+     */
+    private static BinaryReader reader(BinaryWriter out) {
+        return new BinaryReader(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * Test for {@link Requests#fromWireName(String)}.
+     */
+    @Test
+    public void fromWireName() {
+        for (Requests request : Requests.values())
+            assertEquals(request, Requests.fromWireName(request.getWireName()));
+        assertEquals(Requests.GAME__PLAY_CARD, Requests.fromWireName("GAME.PLAY_CARD"));
+        assertNull(Requests.fromWireName("GAME.UNKNOWN"));
+        assertNull(Requests.fromWireName(null));
+    }
+
     @Test
     public void handle() {
         //TODO
     }
-}
\ No newline at end of file
+}
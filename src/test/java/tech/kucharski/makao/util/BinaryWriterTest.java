@@ -0,0 +1,68 @@
+package tech.kucharski.makao.util;
+
+import org.junit.jupiter.api.Test;
+import tech.kucharski.makao.game.GamePhase;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BinaryWriter} and {@link BinaryReader}.
+ */
+public class BinaryWriterTest {
+    /**
+     * Values written by {@link BinaryWriter} are read back by {@link BinaryReader}.
+     */
+    @Test
+    public void roundTrip() {
+        final UUID uuid = UUID.randomUUID();
+        final BinaryWriter out = new BinaryWriter(1);
+        out.writeByte(200).writeBoolean(true).writeShort(65000).writeInt(-5).writeUUID(uuid).writeUUID(null)
+                .writeString("Za\u017c\u00f3\u0142\u0107").writeString(null).writeEnum(GamePhase.FINISHED).writeEnum(null);
+        assertEquals(1 + 1 + 2 + 4 + 16 + 16 + 2 + 10 + 2 + 1 + 1, out.size());
+
+        final BinaryReader in = new BinaryReader(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(200, in.readByte());
+        assertTrue(in.readBoolean());
+        assertEquals(65000, in.readShort());
+        assertEquals(-5, in.readInt());
+        assertEquals(uuid, in.readUUID());
+        assertNull(in.readNullableUUID());
+        assertEquals("Za\u017c\u00f3\u0142\u0107", in.readString());
+        assertNull(in.readNullableString());
+        assertEquals(GamePhase.FINISHED, in.readEnum(GamePhase.values()));
+        assertNull(in.readNullableEnum(GamePhase.values()));
+        assertEquals(0, in.remaining());
+        assertThrows(BufferUnderflowException.class, in::readByte);
+    }
+
+    /**
+     * Invalid values are rejected by {@link BinaryReader}.
+     */
+    @Test
+    public void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> reader(new BinaryWriter().writeUUID(null)).readUUID());
+        assertThrows(IllegalArgumentException.class, () -> reader(new BinaryWriter().writeString(null)).readString());
+        assertThrows(IllegalArgumentException.class, () -> reader(new BinaryWriter().writeEnum(null))
+                .readEnum(GamePhase.values()));
+        assertThrows(IllegalArgumentException.class, () -> reader(new BinaryWriter().writeByte(3))
+                .readEnum(GamePhase.values()));
+        assertThrows(IllegalArgumentException.class, () -> reader(new BinaryWriter().writeByte(2)).readBoolean());
+        assertThrows(IllegalArgumentException.class, () -> reader(new BinaryWriter().writeShort(1).writeByte(0xFF))
+                .readString());
+        assertThrows(BufferUnderflowException.class, () -> reader(new BinaryWriter().writeShort(3).writeByte('a'))
+                .readString());
+        assertThrows(IllegalArgumentException.class, () -> new BinaryWriter().writeString("a".repeat(0xFFFF)));
+    }
+
+    /**
+     * @param out Written data.
+     * @return Reader of the data.
+     */
+    private static BinaryReader reader(BinaryWriter out) {
+        return new BinaryReader(ByteBuffer.wrap(out.toByteArray()));
+    }
+}
@@ -0,0 +1,62 @@
+package tech.kucharski.makao.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link HashedTimingWheel}.
+ */
+public class HashedTimingWheelTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Values expire on the first tick at or after their deadline, also after more revolutions of the wheel.
+     */
+    @Test
+    public void tick() {
+        final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, TimeUnit.MILLISECONDS, 6, 0);
+        final List<String> expired = new ArrayList<>();
+        wheel.schedule("a", 25 * MS);
+        wheel.schedule("b", 30 * MS);
+        //8 buckets of 10 ms, the deadline is two revolutions away
+        wheel.schedule("c", 185 * MS);
+        wheel.schedule("past", -5 * MS);
+        assertEquals(4, wheel.size());
+
+        wheel.tick(10 * MS, expired::add);
+        assertEquals(List.of("past"), expired);
+        wheel.tick(29 * MS, expired::add);
+        assertEquals(List.of("past"), expired);
+        wheel.tick(30 * MS, expired::add);
+        assertEquals(List.of("past", "a", "b"), expired);
+        wheel.tick(180 * MS, expired::add);
+        assertEquals(3, expired.size());
+        wheel.tick(190 * MS, expired::add);
+        assertEquals(List.of("past", "a", "b", "c"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * A late tick expires all values due, even if it skips more than one revolution.
+     */
+    @Test
+    public void late() {
+        final HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(1, TimeUnit.MILLISECONDS, 4, 0);
+        for (int i = 1; i <= 20; i++)
+            wheel.schedule(i, i * MS);
+        final List<Integer> expired = new ArrayList<>();
+        wheel.tick(15 * MS, expired::add);
+        assertEquals(15, expired.size());
+        assertEquals(5, wheel.size());
+        //Values scheduled from the consumer are not expired by the same tick
+        wheel.tick(20 * MS, value -> wheel.schedule(value, 0));
+        assertEquals(5, wheel.size());
+        wheel.tick(21 * MS, expired::add);
+        assertEquals(20, expired.size());
+    }
+}
@@ -0,0 +1,64 @@
+package tech.kucharski.makao.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MessageSchema}.
+ */
+public class MessageSchemaTest {
+    /**
+     * Test for {@link MessageSchema#parse(JsonObject)}.
+     */
+    @Test
+    public void parse() {
+        final MessageSchema.Field<UUID> id = MessageSchema.uuid("id");
+        final MessageSchema.Field<String> name = MessageSchema.string("name");
+        final MessageSchema.Field<String> request = MessageSchema.nullableString("request");
+        final MessageSchema.Field<List<UUID>> cards = MessageSchema.uuidArray("cards");
+        final MessageSchema schema = new MessageSchema(id, name, request, cards);
+        assertNull(schema.parse(null));
+
+        final JsonObject jsonObject = new JsonObject();
+        assertNull(schema.parse(jsonObject));
+
+        final UUID uuid = UUID.randomUUID();
+        final JsonArray array = new JsonArray();
+        array.add(uuid.toString());
+        jsonObject.addProperty("id", uuid.toString());
+        jsonObject.addProperty("name", "Name");
+        jsonObject.add("request", null);
+        jsonObject.add("cards", array);
+        final MessageSchema.Values values = schema.parse(jsonObject);
+        assertNotNull(values);
+        assertEquals(uuid, values.get(id));
+        assertEquals("Name", values.get(name));
+        assertNull(values.get(request));
+        assertEquals(List.of(uuid), values.get(cards));
+        assertThrows(IllegalArgumentException.class, () -> values.get(MessageSchema.string("name")));
+
+        jsonObject.addProperty("request", "HEARTS");
+        assertEquals("HEARTS", schema.parse(jsonObject).get(request));
+
+        jsonObject.add("name", null);
+        assertNull(schema.parse(jsonObject));
+        jsonObject.add("name", new JsonObject());
+        assertNull(schema.parse(jsonObject));
+        jsonObject.addProperty("name", "Name");
+
+        jsonObject.addProperty("id", "not an uuid");
+        assertNull(schema.parse(jsonObject));
+        jsonObject.addProperty("id", uuid.toString());
+
+        array.add(new JsonArray());
+        assertNull(schema.parse(jsonObject));
+        jsonObject.addProperty("cards", uuid.toString());
+        assertNull(schema.parse(jsonObject));
+    }
+}